@@ -1,47 +1,27 @@
 package api.booking;
 
 import api.setup.BaseTest;
-import api.setup.BookingFactory;
-import config.Constants;
-import io.restassured.specification.RequestSpecification;
+import load.ContentionHarness;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
-import pojo.BookingRequest;
 import pojo.CreateBookingResponse;
-import pojo.LoginRequest;
 
-import java.io.IOException;
-
-import static io.restassured.RestAssured.given;
-import static java.util.Collections.synchronizedList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
-import static utils.Auth.login;
-
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class DeleteBookingTests extends BaseTest {
     private String token = "";
 
     @BeforeClass
     public void setupAuth() {
-        LoginRequest loginRequest = new LoginRequest(Constants.USERNAME, Constants.PASSWORD);
-        token = login(loginRequest, requestSpec, responseSpec);
+        token = tokenProvider.token();
     }
 
     @DataProvider(name = "bookingData")
-    public Object[][] setupBookings() throws IOException {
-        BookingRequest bookingRequests =
-                BookingFactory.loadBookingRequests("src/test/resources/bookingData.json")
-                              .get(0);
-        CreateBookingResponse response = BookingFactory.createBooking(bookingRequests, requestSpec, responseSpec);
+    public Object[][] setupBookings() {
         return new Object[][]{
-                {response}
+                {bookingPool.lease()}
         };
     }
 
@@ -72,6 +52,9 @@ public class DeleteBookingTests extends BaseTest {
         client
                 .withPathParam("id", createBookingResponse.getBookingid())
                 .delete("/booking/{id}", 403);
+
+        // booking is left untouched, hand it back to the pool
+        bookingPool.release(createBookingResponse);
     }
 
     @Test(dataProvider = "bookingData")
@@ -80,54 +63,36 @@ public class DeleteBookingTests extends BaseTest {
                 .withToken("test1234")
                 .withPathParam("id", createBookingResponse.getBookingid())
                 .delete("/booking/{id}", 403);
+
+        // booking is left untouched, hand it back to the pool
+        bookingPool.release(createBookingResponse);
     }
 
-    @Test(dataProvider = "bookingData")
-    public void deleteExistingBooking_concurrent(CreateBookingResponse createBookingResponse) throws InterruptedException {
+    @DataProvider(name = "concurrentDeletes")
+    public Object[][] setupConcurrentDeletes() {
+        return new Object[][]{
+                {setupBookings()[0][0], 2},
+                {setupBookings()[0][0], 50}
+        };
+    }
+
+    @Test(dataProvider = "concurrentDeletes")
+    public void deleteExistingBooking_concurrent(CreateBookingResponse createBookingResponse, int callers) throws InterruptedException {
         final int bookingId = createBookingResponse.getBookingid();
-        final int threads = 2;
-
-        // setting up a race condition like situation with three concurrent threads
-
-        CountDownLatch startGate = new CountDownLatch(1); //keeps all threads waiting until we signal them to start
-        CountDownLatch doneGate = new CountDownLatch(threads);//waits until all threads are done
-        ExecutorService pool = Executors.newFixedThreadPool(threads);
-        List<Integer> statuses = synchronizedList(new ArrayList<>()); //makes it threadsafe
-
-        for (int i = 0; i < threads; i++) {
-            pool.submit(() -> {
-                try {
-                    startGate.await(); //waits until we release the startgate
-                    int status = given()
-                            .spec(requestSpec)
-                            .cookie("token", token)
-                            .pathParam("id", bookingId)
-                            .when()
-                            .delete("/booking/{id}")
-                            .then()
-                            .extract()
-                            .statusCode();
-                    statuses.add(status);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                } finally {
-                    doneGate.countDown();
-                }
-            });
-        }
-
-        // Start all threads at once
-        startGate.countDown();
-        doneGate.await();
-        pool.shutdownNow();
-
-        long successCount = statuses.stream().filter(s -> s == 201).count();
-        long notFoundCount = statuses.stream().filter(s -> s == 404 || s == 405).count();
-        long otherCount = statuses.size() - successCount - notFoundCount;
-
-        assertThat("Exactly one DELETE should succeed", successCount, is(1L));
-        assertThat("All remaining deletes should report not found", notFoundCount, is((long) (threads - 1)));
-        assertThat("No unexpected status codes", otherCount, is(0L));
+
+        // setting up a race condition like situation, all callers are released at once against the same booking
+        ContentionHarness.Result result = new ContentionHarness(requestSpec).race(callers, request -> request
+                .cookie("token", token)
+                .pathParam("id", bookingId)
+                .delete("/booking/{id}"));
+
+        long successCount = result.count(201);
+        long notFoundCount = result.count(status -> status == 404 || status == 405);
+        long otherCount = result.total() - successCount - notFoundCount;
+
+        assertThat("Exactly one DELETE should succeed: " + result, successCount, is(1L));
+        assertThat("All remaining deletes should report not found: " + result, notFoundCount, is((long) (callers - 1)));
+        assertThat("No unexpected status codes: " + result, otherCount, is(0L));
 
         // Final verification that the booking is gone
         client
@@ -140,6 +105,9 @@ public class DeleteBookingTests extends BaseTest {
     public void deleteWithoutBookingId(CreateBookingResponse createBookingResponse) {
         client
                 .delete("/booking", 404);
+
+        // booking is left untouched, hand it back to the pool
+        bookingPool.release(createBookingResponse);
     }
 
 
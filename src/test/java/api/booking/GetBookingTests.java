@@ -6,6 +6,7 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 import pojo.BookingRequest;
 import pojo.CreateBookingResponse;
+import utils.IdSet;
 
 import java.io.IOException;
 import java.time.format.DateTimeFormatter;
@@ -17,6 +18,8 @@ import java.util.UUID;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static utils.DateUtil.adjustDate;
+import static utils.IdSetMatchers.containsAllIds;
+import static utils.IdSetMatchers.containsId;
 
 public class GetBookingTests extends BaseTest {
     private final List<CreateBookingResponse> createdBookings = new ArrayList<>();
@@ -26,10 +29,7 @@ public class GetBookingTests extends BaseTest {
         List<BookingRequest> bookingRequests =
                 BookingFactory.loadBookingRequests("src/test/resources/bookingData.json");
 
-        for (BookingRequest request : bookingRequests) {
-            CreateBookingResponse response = BookingFactory.createBooking(request, requestSpec, responseSpec);
-            createdBookings.add(response);
-        }
+        createdBookings.addAll(BookingFactory.createBookings(bookingRequests, requestSpec, responseSpec));
     }
 
     @Test
@@ -38,13 +38,13 @@ public class GetBookingTests extends BaseTest {
                                                           .map(CreateBookingResponse::getBookingid)
                                                           .toList();
 
-        List<Integer> bookingIds = client
-                .getList("/booking", "bookingid", Integer.class);
+        IdSet bookingIds = client
+                .getIdSet("/booking", "bookingid");
 
         assertThat(
                 "Expected booking id list to contain " + expectedBookingIds,
                 bookingIds,
-                hasItems(expectedBookingIds.toArray(new Integer[0]))
+                containsAllIds(expectedBookingIds)
         );
     }
 
@@ -52,24 +52,24 @@ public class GetBookingTests extends BaseTest {
     public void getBookings_filters_firstName() {
         int expectedBookingId = createdBookings.get(0).getBookingid();
 
-        List<Integer> bookingIds = client
+        IdSet bookingIds = client
                 .withQueryParam("firstname", createdBookings.get(0).getBooking().getFirstname())
-                .getList("/booking", "bookingid", Integer.class);
+                .getIdSet("/booking", "bookingid");
 
         assertThat("Expected bookingId list to contain " + expectedBookingId,
-                bookingIds, hasItem(expectedBookingId));
+                bookingIds, containsId(expectedBookingId));
     }
 
     @Test
     public void getBookings_filters_lastName() {
         int expectedBookingId = createdBookings.get(0).getBookingid();
 
-        List<Integer> bookingIds = client
+        IdSet bookingIds = client
                 .withQueryParam("lastname", createdBookings.get(0).getBooking().getLastname())
-                .getList("/booking", "bookingid", Integer.class);
+                .getIdSet("/booking", "bookingid");
 
         assertThat("Expected bookingId list to contain " + expectedBookingId,
-                bookingIds, hasItem(expectedBookingId));
+                bookingIds, containsId(expectedBookingId));
     }
 
     @Test
@@ -80,12 +80,12 @@ public class GetBookingTests extends BaseTest {
                 DateTimeFormatter.ISO_LOCAL_DATE);
         int expectedBookingId = createdBookings.get(0).getBookingid();
 
-        List<Integer> bookingIds = client
+        IdSet bookingIds = client
                 .withQueryParam("checkin", checkinDateParam)
-                .getList("/booking", "bookingid", Integer.class);
+                .getIdSet("/booking", "bookingid");
 
         assertThat("Expected bookingId list to contain " + expectedBookingId,
-                bookingIds, hasItem(expectedBookingId));
+                bookingIds, containsId(expectedBookingId));
     }
 
     @Test
@@ -96,12 +96,12 @@ public class GetBookingTests extends BaseTest {
                 DateTimeFormatter.ISO_LOCAL_DATE);
         int expectedBookingId = createdBookings.get(0).getBookingid();
 
-        List<Integer> bookingIds = client
+        IdSet bookingIds = client
                 .withQueryParam("checkout", checkoutDateParam)
-                .getList("/booking", "bookingid", Integer.class);
+                .getIdSet("/booking", "bookingid");
 
         assertThat("Expected bookingId list to contain " + expectedBookingId,
-                bookingIds, hasItem(expectedBookingId));
+                bookingIds, containsId(expectedBookingId));
     }
 
     @Test
@@ -119,15 +119,15 @@ public class GetBookingTests extends BaseTest {
                                                           .limit(2)
                                                           .toList();
 
-        List<Integer> bookingIds = client
+        IdSet bookingIds = client
                 .withQueryParam("checkin", checkinDateParam)
                 .withQueryParam("checkout", checkoutDateParam)
-                .getList("/booking", "bookingid", Integer.class);
+                .getIdSet("/booking", "bookingid");
 
         assertThat(
                 "Expected booking id list to contain " + expectedBookingIds,
                 bookingIds,
-                hasItems(expectedBookingIds.toArray(new Integer[0]))
+                containsAllIds(expectedBookingIds)
         );
     }
 
@@ -139,12 +139,12 @@ public class GetBookingTests extends BaseTest {
                 DateTimeFormatter.ISO_LOCAL_DATE);
         int expectedBookingId = createdBookings.get(0).getBookingid();
 
-        List<Integer> bookingIds = client
+        IdSet bookingIds = client
                 .withQueryParam("checkout", checkoutDateParam)
-                .getList("/booking", "bookingid", Integer.class);
+                .getIdSet("/booking", "bookingid");
 
         assertThat("Expected bookingId list to contain " + expectedBookingId,
-                bookingIds, hasItem(expectedBookingId));
+                bookingIds, containsId(expectedBookingId));
     }
 
     @Test
@@ -155,12 +155,12 @@ public class GetBookingTests extends BaseTest {
                 DateTimeFormatter.ISO_LOCAL_DATE);
         int expectedBookingId = createdBookings.get(0).getBookingid();
 
-        List<Integer> bookingIds = client
+        IdSet bookingIds = client
                 .withQueryParam("checkin", checkinDateParam)
-                .getList("/booking", "bookingid", Integer.class);
+                .getIdSet("/booking", "bookingid");
 
         assertThat("Expected bookingId list to contain " + expectedBookingId,
-                bookingIds, hasItem(expectedBookingId));
+                bookingIds, containsId(expectedBookingId));
     }
 
     @Test
@@ -183,7 +183,9 @@ public class GetBookingTests extends BaseTest {
 
     @Test
     public void getBookings_filters_return_empty_result() {
-        client.withQueryParam("firstname", UUID.randomUUID().toString())
+        // Name-based rather than random, so the request is the same in every run and can be replayed
+        String unknownName = UUID.nameUUIDFromBytes("getBookings_filters_return_empty_result".getBytes()).toString();
+        client.withQueryParam("firstname", unknownName)
               .get("/booking")
               .then()
               .body("", empty());
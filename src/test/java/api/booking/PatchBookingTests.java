@@ -1,27 +1,24 @@
 package api.booking;
 
 import api.setup.BaseTest;
-import api.setup.BookingFactory;
-import config.Constants;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
+import load.ContentionHarness;
 import org.json.JSONObject;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
-import pojo.BookingRequest;
 import pojo.CreateBookingResponse;
-import pojo.LoginRequest;
-import pojo.BookingResponse;
+import utils.JsonDiff;
 
-import java.io.IOException;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Map;
 
 import static io.restassured.RestAssured.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
-import static utils.Auth.login;
 import static utils.DateUtil.adjustDate;
 
 public class PatchBookingTests extends BaseTest {
@@ -29,18 +26,13 @@ public class PatchBookingTests extends BaseTest {
 
     @BeforeClass
     public void setupAuth() {
-        LoginRequest loginRequest = new LoginRequest(Constants.USERNAME, Constants.PASSWORD);
-        token = login(loginRequest, requestSpec, responseSpec);
+        token = tokenProvider.token();
     }
 
     @DataProvider(name = "bookingData")
-    public Object[][] setupBookings() throws IOException {
-        BookingRequest bookingRequests =
-                BookingFactory.loadBookingRequests("src/test/resources/bookingData.json")
-                              .get(0);
-        CreateBookingResponse response = BookingFactory.createBooking(bookingRequests, requestSpec, responseSpec);
+    public Object[][] setupBookings() {
         return new Object[][]{
-                {response}
+                {bookingPool.lease()}
         };
     }
 
@@ -49,11 +41,11 @@ public class PatchBookingTests extends BaseTest {
         JSONObject patchBookingRequestBody = new JSONObject();
         patchBookingRequestBody.put("firstname", "Maestro");
 
-        BookingResponse patchedResponse = client
+        Response patchedResponse = client
                 .withToken(token)
                 .withPathParam("id", createBookingResponse.getBookingid())
                 .withBody(patchBookingRequestBody.toString())
-                .patch("/booking/{id}", BookingResponse.class);
+                .patch("/booking/{id}");
 
         // Assert firstname is updated and all other fields remain unchanged
         Map<String, Object> expectedUpdates = Map.of(
@@ -67,11 +59,11 @@ public class PatchBookingTests extends BaseTest {
         JSONObject patchBookingRequestBody = new JSONObject();
         patchBookingRequestBody.put("lastname", "Bond");
 
-        BookingResponse patchedResponse = client
+        Response patchedResponse = client
                 .withToken(token)
                 .withPathParam("id", createBookingResponse.getBookingid())
                 .withBody(patchBookingRequestBody.toString())
-                .patch("/booking/{id}", BookingResponse.class);
+                .patch("/booking/{id}");
 
         // Assert lastname is updated and all other fields remain unchanged
         Map<String, Object> expectedUpdates = Map.of(
@@ -85,11 +77,11 @@ public class PatchBookingTests extends BaseTest {
         JSONObject patchBookingRequestBody = new JSONObject();
         patchBookingRequestBody.put("depositpaid", false);
 
-        BookingResponse patchedResponse = client
+        Response patchedResponse = client
                 .withToken(token)
                 .withPathParam("id", createBookingResponse.getBookingid())
                 .withBody(patchBookingRequestBody.toString())
-                .patch("/booking/{id}", BookingResponse.class);
+                .patch("/booking/{id}");
 
         // Assert depositpaid is updated and all other fields remain unchanged
         Map<String, Object> expectedUpdates = Map.of(
@@ -116,15 +108,15 @@ public class PatchBookingTests extends BaseTest {
         JSONObject patchBookingRequestBody = new JSONObject();
         patchBookingRequestBody.put("bookingdates", bookingDates);
 
-        BookingResponse patchedResponse = client
+        Response patchedResponse = client
                 .withToken(token)
                 .withPathParam("id", createBookingResponse.getBookingid())
                 .withBody(patchBookingRequestBody.toString())
-                .patch("/booking/{id}", BookingResponse.class);
+                .patch("/booking/{id}");
 
         // Assert checkin is updated and all other fields remain unchanged
         Map<String, Object> expectedUpdates = Map.of(
-                "checkin", bookingDates.get("checkin")
+                "bookingdates.checkin", bookingDates.get("checkin")
         );
         assertBookingFields(patchedResponse, createBookingResponse, expectedUpdates);
 
@@ -146,15 +138,15 @@ public class PatchBookingTests extends BaseTest {
         JSONObject patchBookingRequestBody = new JSONObject();
         patchBookingRequestBody.put("bookingdates", bookingDates);
 
-        BookingResponse patchedResponse = client
+        Response patchedResponse = client
                 .withToken(token)
                 .withPathParam("id", createBookingResponse.getBookingid())
                 .withBody(patchBookingRequestBody.toString())
-                .patch("/booking/{id}", BookingResponse.class);
+                .patch("/booking/{id}");
 
         // Assert checkout is updated and all other fields remain unchanged
         Map<String, Object> expectedUpdates = Map.of(
-                "checkout", bookingDates.get("checkout")
+                "bookingdates.checkout", bookingDates.get("checkout")
         );
         assertBookingFields(patchedResponse, createBookingResponse, expectedUpdates);
 
@@ -185,16 +177,16 @@ public class PatchBookingTests extends BaseTest {
         patchBookingRequestBody.put("bookingdates", bookingDates);
         patchBookingRequestBody.put("firstname", "bond");
 
-        BookingResponse patchedResponse = client
+        Response patchedResponse = client
                 .withToken(token)
                 .withPathParam("id", createBookingResponse.getBookingid())
                 .withBody(patchBookingRequestBody.toString())
-                .patch("/booking/{id}", BookingResponse.class);
+                .patch("/booking/{id}");
 
         // Assert checkout is updated and all other fields remain unchanged
         Map<String, Object> expectedUpdates = Map.of(
-                "checkout", bookingDates.get("checkout"),
-                "checkin", bookingDates.get("checkin"),
+                "bookingdates.checkout", bookingDates.get("checkout"),
+                "bookingdates.checkin", bookingDates.get("checkin"),
                 "firstname", patchBookingRequestBody.get("firstname")
         );
         assertBookingFields(patchedResponse, createBookingResponse, expectedUpdates);
@@ -235,6 +227,9 @@ public class PatchBookingTests extends BaseTest {
                 .withPathParam("id", createBookingResponse.getBookingid())
                 .withBody(patchBookingRequestBody.toString())
                 .patch("/booking/{id}", 403);
+
+        // booking is left untouched, hand it back to the pool
+        bookingPool.release(createBookingResponse);
     }
 
     @Test(dataProvider = "bookingData")
@@ -247,6 +242,9 @@ public class PatchBookingTests extends BaseTest {
                 .withPathParam("id", createBookingResponse.getBookingid())
                 .withBody(patchBookingRequestBody.toString())
                 .patch("/booking/{id}", 403);
+
+        // booking is left untouched, hand it back to the pool
+        bookingPool.release(createBookingResponse);
     }
 
     @Test(dataProvider = "bookingData")
@@ -254,11 +252,11 @@ public class PatchBookingTests extends BaseTest {
         JSONObject patchBookingRequestBody = new JSONObject();
         patchBookingRequestBody.put("firstname", "Maestro");
 
-        BookingResponse patchedResponse = client
+        Response patchedResponse = client
                 .withToken(token)
                 .withPathParam("id", createBookingResponse.getBookingid())
                 .withBody(patchBookingRequestBody.toString())
-                .patch("/booking/{id}", BookingResponse.class);
+                .patch("/booking/{id}");
 
         // Assert firstname is updated and all other fields remain unchanged
         Map<String, Object> expectedUpdates = Map.of(
@@ -271,7 +269,7 @@ public class PatchBookingTests extends BaseTest {
                 .withToken(token)
                 .withPathParam("id", createBookingResponse.getBookingid())
                 .withBody(patchBookingRequestBody.toString())
-                .patch("/booking/{id}", BookingResponse.class);
+                .patch("/booking/{id}");
         assertBookingFields(patchedResponse, createBookingResponse, expectedUpdates);
 
     }
@@ -282,11 +280,11 @@ public class PatchBookingTests extends BaseTest {
         patchBookingRequestBody.put("firstname", "O'Connor<testing>");
         patchBookingRequestBody.put("lastname", "测试");
 
-        BookingResponse patchedResponse = client
+        Response patchedResponse = client
                 .withToken(token)
                 .withPathParam("id", createBookingResponse.getBookingid())
                 .withBody(patchBookingRequestBody.toString())
-                .patch("/booking/{id}", BookingResponse.class);
+                .patch("/booking/{id}");
 
         // Assert firstname and lastname is updated and all other fields remain unchanged
         Map<String, Object> expectedUpdates = Map.of(
@@ -315,86 +313,49 @@ public class PatchBookingTests extends BaseTest {
                 .statusCode(400);
     }
 
-    public void assertBookingFields(BookingResponse actual,
-                                    CreateBookingResponse original,
-                                    Map<String, Object> expectedUpdates) {
-        // Check firstname
-        if (expectedUpdates.containsKey("firstname")) {
-            assertThat("firstname should be updated correctly",
-                    actual.getFirstname(),
-                    is(expectedUpdates.get("firstname")));
-        } else {
-            assertThat("firstname should remain unchanged",
-                    actual.getFirstname(),
-                    is(original.getBooking().getFirstname()));
-        }
-
-        // Check lastname
-        if (expectedUpdates.containsKey("lastname")) {
-            assertThat("lastname should be updated correctly",
-                    actual.getLastname(),
-                    is(expectedUpdates.get("lastname")));
-        } else {
-            assertThat("lastname should remain unchanged",
-                    actual.getLastname(),
-                    is(original.getBooking().getLastname()));
-        }
-
-        // Check totalprice
-        if (expectedUpdates.containsKey("totalprice")) {
-            assertThat("totalprice should be updated correctly",
-                    actual.getTotalprice(),
-                    is(expectedUpdates.get("totalprice")));
-        } else {
-            assertThat("totalprice should remain unchanged",
-                    actual.getTotalprice(),
-                    is(original.getBooking().getTotalprice()));
-        }
-
-        // Check depositpaid
-        if (expectedUpdates.containsKey("depositpaid")) {
-            assertThat("depositpaid should be updated correctly",
-                    actual.isDepositpaid(),
-                    is(expectedUpdates.get("depositpaid")));
-        } else {
-            assertThat("depositpaid should remain unchanged",
-                    actual.isDepositpaid(),
-                    is(original.getBooking().isDepositpaid()));
-        }
-
-        // Check additionalneeds
-        if (expectedUpdates.containsKey("additionalneeds")) {
-            assertThat("additionalneeds should be updated correctly",
-                    actual.getAdditionalneeds(),
-                    is(expectedUpdates.get("additionalneeds")));
-        } else {
-            assertThat("additionalneeds should remain unchanged",
-                    actual.getAdditionalneeds(),
-                    is(original.getBooking().getAdditionalneeds()));
-        }
-
-        // Check bookingdates.checkin
-        if (expectedUpdates.containsKey("checkin")) {
-            assertThat("bookingdates.checkin should be updated correctly",
-                    actual.getBookingdates().getCheckin().toString(),
-                    is(expectedUpdates.get("checkin")));
-        } else {
-            assertThat("bookingdates.checkin should remain unchanged",
-                    actual.getBookingdates().getCheckin(),
-                    is(original.getBooking().getBookingdates().getCheckin()));
-        }
-
-        // Check bookingdates.checkout
-        if (expectedUpdates.containsKey("checkout")) {
-            assertThat("bookingdates.checkout should be updated correctly",
-                    actual.getBookingdates().getCheckout().toString(),
-                    is(expectedUpdates.get("checkout")));
-        } else {
-            assertThat("bookingdates.checkout should remain unchanged",
-                    actual.getBookingdates().getCheckout(),
-                    is(original.getBooking().getBookingdates().getCheckout()));
-        }
+    @DataProvider(name = "concurrentPatches")
+    public Object[][] setupConcurrentPatches() {
+        return new Object[][]{
+                {setupBookings()[0][0], 2},
+                {setupBookings()[0][0], 50}
+        };
     }
 
+    @Test(dataProvider = "concurrentPatches")
+    public void patchBooking_concurrent_sameBooking_noChangeInOtherFields(CreateBookingResponse createBookingResponse, int callers) throws InterruptedException {
+        JSONObject patchBookingRequestBody = new JSONObject();
+        patchBookingRequestBody.put("firstname", "Maestro");
+
+        // all callers are released at once with the same update against the same booking
+        ContentionHarness.Result result = new ContentionHarness(requestSpec).race(callers, request -> request
+                .cookie("token", token)
+                .pathParam("id", createBookingResponse.getBookingid())
+                .body(patchBookingRequestBody.toString())
+                .patch("/booking/{id}"));
+
+        assertThat("Every concurrent PATCH should succeed: " + result, result.count(200), is((long) callers));
 
+        Response bookingAfterRace = client
+                .withPathParam("id", createBookingResponse.getBookingid())
+                .get("/booking/{id}");
+
+        // Assert firstname is updated and all other fields remain unchanged
+        Map<String, Object> expectedUpdates = Map.of(
+                "firstname", patchBookingRequestBody.get("firstname")
+        );
+        assertBookingFields(bookingAfterRace, createBookingResponse, expectedUpdates);
+    }
+
+    /**
+     * Diffs the raw response body against the original booking with the expected updates applied, reporting every
+     * changed field by path. Update keys are dotted paths, e.g. {@code bookingdates.checkin}.
+     */
+    public void assertBookingFields(Response actual,
+                                    CreateBookingResponse original,
+                                    Map<String, Object> expectedUpdates) {
+        JsonNode expected = JsonDiff.patch(JsonDiff.toTree(original.getBooking()), expectedUpdates);
+        List<String> differences = JsonDiff.diff(expected, JsonDiff.parse(actual.asByteArray()));
+
+        assertThat("Only the patched fields should change", differences, empty());
+    }
 }
@@ -2,23 +2,23 @@ package api.integration;
 
 import api.setup.BaseTest;
 import api.setup.BookingFactory;
-import config.Constants;
 import io.restassured.specification.RequestSpecification;
 import org.json.JSONObject;
 import org.testng.annotations.Test;
 import pojo.BookingRequest;
 import pojo.CreateBookingResponse;
-import pojo.LoginRequest;
 import pojo.BookingResponse;
 
 import java.io.IOException;
 import java.time.format.DateTimeFormatter;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
-import static utils.Auth.login;
 import static utils.DateUtil.adjustDate;
 
 public class Bookinge2eTests extends BaseTest {
@@ -29,11 +29,19 @@ public class Bookinge2eTests extends BaseTest {
         BookingRequest bookingRequests =
                 BookingFactory.loadBookingRequests("src/test/resources/bookingData_single.json")
                               .get(0);
-        CreateBookingResponse createBookingResponse = BookingFactory.createBooking(bookingRequests, requestSpec, responseSpec);
+        CreateBookingResponse createBookingResponse;
+        String token;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Through the filters of the shared spec, and registered for cleanup
+            CompletableFuture<CreateBookingResponse> createdBooking = CompletableFuture.supplyAsync(
+                    () -> BookingFactory.createBooking(bookingRequests, requestSpec, responseSpec), executor);
 
-        //login and generate token for patch and delete
-        LoginRequest loginRequest = new LoginRequest(Constants.USERNAME, Constants.PASSWORD);
-        String token = login(loginRequest, requestSpec, responseSpec);
+            //login and generate token for patch and delete, overlapping with the booking creation
+            CompletableFuture<String> loginToken = tokenProvider.tokenAsync();
+
+            createBookingResponse = createdBooking.join();
+            token = loginToken.join();
+        }
 
         // patch the above created booking with checkin, checkout and firstname
         String checkinDateParam =
@@ -0,0 +1,76 @@
+package api.performance;
+
+import api.setup.BaseTest;
+import api.setup.BookingFactory;
+import io.qameta.allure.Allure;
+import io.restassured.response.Response;
+import load.AdaptiveLimit;
+import load.LoadEngine;
+import load.LoadProfile;
+import load.LoadReport;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import pojo.CreateBookingResponse;
+import utils.RestClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+public class BookingLoadTests extends BaseTest {
+    private List<CreateBookingResponse> bookings;
+
+    // Skewed names give the firstname filter a realistic mix of common and rare matches
+    @BeforeClass
+    public void setupBookings() {
+        bookings = BookingFactory.createBookings(bookingGenerator().nameSkew(2.0).stream(8).toList(),
+                requestSpec, responseSpec);
+    }
+
+    @Test
+    public void getBookings_rampThenConstantArrivalRate_noErrors() throws InterruptedException {
+        LoadReport report = new LoadEngine(requestSpec, responseSpec)
+                .endpoint("GET /booking", 1, anyBooking((client, booking) -> client
+                        .withQueryParam("firstname", booking.getBooking().getFirstname())
+                        .get("/booking")))
+                .endpoint("GET /booking/{id}", 3, anyBooking((client, booking) -> client
+                        .withPathParam("id", booking.getBookingid())
+                        .get("/booking/{id}")))
+                .run(LoadProfile.ramp(1, 10, Duration.ofSeconds(5))
+                                .then(LoadProfile.constant(10, Duration.ofSeconds(10))));
+
+        Allure.addAttachment("Load report", "text/plain", report.toString(), ".txt");
+        assertThat("Load run should issue requests", report.totalRequests(), greaterThan(0L));
+        assertThat("No request should fail under load", report.totalErrors(), is(0L));
+        assertThat("No arrival should be dropped", report.totalDropped(), is(0L));
+    }
+
+    @Test
+    public void getBooking_overload_adaptiveInFlightShedsInsteadOfFailing() throws InterruptedException {
+        AdaptiveLimit limit = AdaptiveLimit.of("GET /booking/{id} in flight", 4, 64);
+        LoadReport report = new LoadEngine(requestSpec, responseSpec)
+                .endpoint("GET /booking/{id}", anyBooking((client, booking) -> client
+                        .withPathParam("id", booking.getBookingid())
+                        .get("/booking/{id}")))
+                .adaptiveInFlight(limit)
+                .run(LoadProfile.constant(100, Duration.ofSeconds(10)));
+
+        Allure.addAttachment("Load report", "text/plain", report.toString(), ".txt");
+        Allure.addAttachment("Adaptive limit", "text/plain", limit.summary(), ".txt");
+        assertThat("Load run should issue requests", report.totalRequests(), greaterThan(0L));
+        assertThat("Arrivals over the limit should be dropped, not fail", report.totalErrors(), is(0L));
+    }
+
+    /**
+     * Runs {@code call} against a booking picked at random per request, so the load spreads over the whole set.
+     */
+    private Function<RestClient, Response> anyBooking(BiFunction<RestClient, CreateBookingResponse, Response> call) {
+        return client -> call.apply(client, bookings.get(ThreadLocalRandom.current().nextInt(bookings.size())));
+    }
+}
@@ -1,32 +1,83 @@
 package api.setup;
 
+import config.CleanupConfig;
 import config.Constants;
+import config.HedgingConfig;
+import config.HttpPoolConfig;
+import config.LatencyGateConfig;
+import config.RateLimitConfig;
+import config.ResponseCacheConfig;
+import config.ShardConfig;
+import io.qameta.allure.Allure;
 import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.builder.ResponseSpecBuilder;
 import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
 import io.restassured.specification.ResponseSpecification;
-import org.testng.annotations.BeforeClass;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.BeforeTest;
+import stub.BookerStubServer;
+import stub.RecordingProxyServer;
+import stub.ReplayServer;
+import suite.AdaptiveParallelism;
+import utils.AdaptiveLimitFilter;
+import utils.HedgingPolicy;
+import utils.LatencyFilter;
+import utils.LatencyHistograms;
+import utils.LatencyRecorder;
+import utils.PooledHttpClientFactory;
+import utils.RateLimitFilter;
+import utils.RateLimiter;
+import utils.RequestLogRing;
+import utils.ResponseCache;
 import utils.RestClient;
+import utils.RingBufferLogFilter;
+import utils.TokenProvider;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
 
 import static org.hamcrest.Matchers.lessThan;
 
 public abstract class BaseTest {
 
+    // Built once per suite and only read afterwards, so they are safe to share across parallel test methods
     protected static RequestSpecification requestSpec;
     protected static ResponseSpecification responseSpec;
-    protected RestClient client;
+    protected static RestClient client;
+    protected static TokenProvider tokenProvider;
+    protected static BookingPool bookingPool;
+    protected static PooledHttpClientFactory httpClientFactory;
+    protected static LatencyRecorder latencyRecorder;
+    protected static RateLimiter rateLimiter;
+    protected static HedgingPolicy hedgingPolicy;
+    protected static ResponseCache responseCache;
+    private static volatile String suiteName;
 
-    @BeforeClass
-    public void setupBaseConfiguration() {
+    @BeforeSuite(alwaysRun = true)
+    public void setupBaseConfiguration() throws IOException {
         // Global REST-assured configuration
-        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+        httpClientFactory = new PooledHttpClientFactory(HttpPoolConfig.fromSystemProperties());
+        RestAssured.config = RestAssured.config().httpClient(httpClientFactory.httpClientConfig());
+        latencyRecorder = new LatencyRecorder();
+        rateLimiter = new RateLimiter(RateLimitConfig.fromSystemProperties());
 
-        // Build request specification
+        // Build request specification, every request made from it shares the pooled connections and the rate limits
         requestSpec = new RequestSpecBuilder()
-                .setBaseUri(Constants.BASE_URL)
+                .setConfig(RestAssured.config)
+                .setBaseUri(baseUrl())
                 .setContentType(ContentType.JSON)
+                .addFilter(new RateLimitFilter(rateLimiter))
+                .addFilter(new RingBufferLogFilter())
+                .addFilter(new LatencyFilter(latencyRecorder))
+                .addFilter(new AdaptiveLimitFilter(AdaptiveParallelism::heldByCurrentThread))
                 .build();
 
         // Build response specification
@@ -37,6 +88,120 @@ public abstract class BaseTest {
         // Set global specifications
         RestAssured.requestSpecification = requestSpec;
         RestAssured.responseSpecification = responseSpec;
-        client = new RestClient(requestSpec, responseSpec);
+        hedgingPolicy = new HedgingPolicy(HedgingConfig.fromSystemProperties());
+        responseCache = new ResponseCache(ResponseCacheConfig.fromSystemProperties());
+        client = new RestClient(requestSpec, responseSpec, hedgingPolicy, responseCache);
+        tokenProvider = new TokenProvider(requestSpec, responseSpec);
+        // Every pooled booking has the same content, so what a test sends does not depend on which one it leases
+        // and a recorded run replays whatever the lease order
+        bookingPool = new BookingPool(List.of(bookingGenerator().generate(0)), requestSpec, responseSpec, 16, 8);
+        // the first tests to lease find bookings ready instead of waiting for a batch
+        bookingPool.prefill();
+    }
+
+    /**
+     * Generator of synthetic bookings, seeded from {@code -Dbooking.seed} so a run's fixtures can be reproduced.
+     */
+    protected static BookingGenerator bookingGenerator() {
+        return new BookingGenerator(Long.getLong(Constants.BOOKING_SEED_PROPERTY, 0L));
+    }
+
+    // @AfterSuite cannot be injected with the suite, so it is taken from the first <test> to start
+    @BeforeTest(alwaysRun = true)
+    public void captureSuiteName(ITestContext context) {
+        suiteName = context.getSuite().getName();
+    }
+
+    @BeforeMethod(alwaysRun = true)
+    public void beginTestRecording() {
+        LatencyRecorder.beginTest();
+        RequestLogRing.beginTest();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void attachLatencySummary() {
+        LatencyRecorder testLatencies = LatencyRecorder.endTest();
+        if (testLatencies != null && !testLatencies.isEmpty()) {
+            Allure.addAttachment("Latency per endpoint", "text/plain", testLatencies.summary(), ".txt");
+        }
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void attachRequestLogOnFailure(ITestResult result) {
+        RequestLogRing ring = RequestLogRing.endTest();
+        if (result.getStatus() == ITestResult.FAILURE && ring != null && !ring.isEmpty()) {
+            Allure.addAttachment("Last HTTP exchanges", "text/plain", ring.render(RequestLogRing.SLOTS), ".txt");
+        }
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void tearDownBaseConfiguration() throws IOException {
+        // Attached to the suite's tear-down in the Allure report
+        attach("Latency per endpoint", latencyRecorder.summary());
+        if (rateLimiter.enabled()) {
+            attach("Rate limits", rateLimiter.summary());
+        }
+        if (hedgingPolicy.enabled()) {
+            attach("Hedging", hedgingPolicy.summary());
+        }
+        if (responseCache.enabled()) {
+            attach("Response cache", responseCache.summary());
+        }
+        try {
+            recordLatency(suiteName);
+        } finally {
+            // After the latency snapshot, so the bulk deletes do not count against DELETE /booking/{id}
+            bookingPool.shutdown();
+            deleteLeftoverBookings();
+            attach("HTTP pool", httpClientFactory.metrics().toString());
+            httpClientFactory.shutdown();
+        }
+    }
+
+    private static void attach(String name, String text) {
+        Allure.addAttachment(name, "text/plain", text, ".txt");
+    }
+
+    /**
+     * Deletes the bookings the tests created and left behind, so the target's dataset stays the same size between
+     * runs. A replayed recording has no dataset to keep clean.
+     */
+    private static void deleteLeftoverBookings() {
+        CleanupConfig cleanup = CleanupConfig.fromSystemProperties();
+        if (!cleanup.enabled() || System.getProperty(Constants.REPLAY_PROPERTY) != null
+                || BookingRegistry.size() == 0) {
+            return;
+        }
+        attach("Booking cleanup",
+                BookingRegistry.deleteLeftovers(requestSpec, tokenProvider.token(), cleanup.parallelism()).toString());
+    }
+
+    /**
+     * Writes this run's latency histograms for the gate. Surefire does not count a failure in {@code @AfterSuite},
+     * so the suite does not gate itself: {@code suite.LatencyGate} does after the tests, as a build step, and
+     * {@code suite.ShardMerge} adds up the shards of a sharded run and gates once.
+     */
+    private static void recordLatency(String suiteName) throws IOException {
+        LatencyGateConfig gate = LatencyGateConfig.fromSystemProperties();
+        // Local servers answer in microseconds, so their runs are never compared with runs against the real API
+        String server = System.getProperty(Constants.REPLAY_PROPERTY) != null ? " replay"
+                : Boolean.getBoolean(Constants.STUB_PROPERTY) ? " stub" : "";
+        ShardConfig shard = ShardConfig.fromSystemProperties();
+        Path histograms = gate.currentDir().resolve(shard.sharded()
+                ? LatencyGateConfig.shardFileName(suiteName + server, shard.index(), shard.count())
+                : LatencyGateConfig.histogramFileName(suiteName + server));
+        LatencyHistograms.write(latencyRecorder.snapshot(), histograms);
+    }
+
+    protected static String baseUrl() {
+        String replay = System.getProperty(Constants.REPLAY_PROPERTY);
+        if (replay != null) {
+            return ReplayServer.shared(Path.of(replay)).baseUrl();
+        }
+        String target = Boolean.getBoolean(Constants.STUB_PROPERTY)
+                ? BookerStubServer.shared().baseUrl()
+                : Constants.BASE_URL;
+        String record = System.getProperty(Constants.RECORD_PROPERTY);
+        return record == null ? target : RecordingProxyServer.shared(target, Path.of(record)).baseUrl();
     }
 }
@@ -0,0 +1,177 @@
+package api.setup;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import pojo.BookingRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Loads booking test data with one shared, preconfigured mapper.
+ * Small files are parsed once and cached; large files are memory-mapped and parsed token by token, so only the
+ * booking currently being read is ever on the heap.
+ */
+public final class BookingDataLoader {
+
+    public static final long CACHE_LIMIT_BYTES = 1024 * 1024;
+
+    // Mapped in windows so files larger than 2 GiB (the limit of a single MappedByteBuffer) can be streamed
+    private static final long MAP_WINDOW_BYTES = 256L * 1024 * 1024;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS); // check-in/check-out fields are of type date
+    private static final ObjectReader READER = MAPPER.readerFor(BookingRequest.class);
+    private static final Map<Path, List<BookingRequest>> CACHE = new ConcurrentHashMap<>();
+
+    private BookingDataLoader() {
+    }
+
+    public static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    /**
+     * Returns every booking in the file. Files up to {@link #CACHE_LIMIT_BYTES} are parsed only once per JVM;
+     * the returned list is unmodifiable and it and its bookings are shared by every caller, so the bookings must
+     * not be mutated: build a new {@link BookingRequest} for a variation.
+     */
+    public static List<BookingRequest> load(String filePath) throws IOException {
+        Path path = Path.of(filePath).toAbsolutePath().normalize();
+        if (path.toFile().length() > CACHE_LIMIT_BYTES) {
+            try (Stream<BookingRequest> bookings = stream(filePath)) {
+                return bookings.toList();
+            }
+        }
+        try {
+            return CACHE.computeIfAbsent(path, key -> {
+                try (Stream<BookingRequest> bookings = stream(key.toString())) {
+                    return bookings.toList();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Lazily parses a JSON array of bookings from a memory-mapped file. The stream must be closed to release
+     * the file.
+     */
+    public static Stream<BookingRequest> stream(String filePath) throws IOException {
+        FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ);
+        JsonParser parser;
+        try {
+            parser = MAPPER.getFactory().createParser(new MappedInputStream(channel));
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of bookings in " + filePath);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        Iterator<BookingRequest> iterator = new BookingIterator(parser);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                            .onClose(() -> {
+                                try {
+                                    parser.close();
+                                    channel.close();
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                            });
+    }
+
+    private static final class BookingIterator implements Iterator<BookingRequest> {
+        private final JsonParser parser;
+        private JsonToken next;
+
+        private BookingIterator(JsonParser parser) {
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = parser.nextToken();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return next == JsonToken.START_OBJECT;
+        }
+
+        @Override
+        public BookingRequest next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            next = null;
+            try {
+                return READER.readValue(parser);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Reads a file through successive read-only mappings of at most {@link #MAP_WINDOW_BYTES}.
+     */
+    private static final class MappedInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long size;
+        private long position;
+        private InputStream window = InputStream.nullInputStream();
+
+        private MappedInputStream(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = window.read(buffer, offset, length);
+            while (read == -1) {
+                if (position >= size) {
+                    return -1;
+                }
+                long windowSize = Math.min(MAP_WINDOW_BYTES, size - position);
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+                position += windowSize;
+                window = new ByteBufferBackedInputStream(mapped);
+                read = window.read(buffer, offset, length);
+            }
+            return read;
+        }
+    }
+}
@@ -1,39 +1,76 @@
 package api.setup;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import io.restassured.RestAssured;
 import io.restassured.specification.RequestSpecification;
 import io.restassured.specification.ResponseSpecification;
 import pojo.BookingRequest;
 import pojo.CreateBookingResponse;
 
-import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class BookingFactory {
+    /**
+     * Small files are parsed once per JVM and served from cache, see {@link BookingDataLoader#load(String)}; the
+     * bookings are shared and must not be mutated.
+     * Use {@link BookingDataLoader#stream(String)} for large datasets.
+     */
     public static List<BookingRequest> loadBookingRequests(String filePath) throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS); // check-in/check-out fields are of type date
-        return mapper.readValue(new File(filePath), new TypeReference<>() {
-        });
+        return BookingDataLoader.load(filePath);
     }
 
+    /**
+     * Creates the booking and registers it with {@link BookingRegistry}, so it is deleted when the suite finishes
+     * if the test does not delete it.
+     */
     public static CreateBookingResponse createBooking(BookingRequest bookingRequest,
                                                       RequestSpecification requestSpec,
                                                       ResponseSpecification responseSpec) {
-        return RestAssured.given()
-                          .spec(requestSpec)
-                          .body(bookingRequest)
-                          .post("/booking")
-                          .then()
-                          .spec(responseSpec)
-                          .statusCode(200)
-                          .extract()
-                          .as(CreateBookingResponse.class);
+        CreateBookingResponse response = RestAssured.given()
+                                                    .spec(requestSpec)
+                                                    .body(bookingRequest)
+                                                    .post("/booking")
+                                                    .then()
+                                                    .spec(responseSpec)
+                                                    .statusCode(200)
+                                                    .extract()
+                                                    .as(CreateBookingResponse.class);
+        BookingRegistry.created(response.getBookingid());
+        return response;
+    }
+
+    /**
+     * Creates all bookings concurrently (one virtual thread each) and returns the responses in request order.
+     */
+    public static List<CreateBookingResponse> createBookings(List<BookingRequest> bookingRequests,
+                                                             RequestSpecification requestSpec,
+                                                             ResponseSpecification responseSpec) {
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<CreateBookingResponse>> futures = new ArrayList<>();
+            for (BookingRequest bookingRequest : bookingRequests) {
+                futures.add(pool.submit(() -> createBooking(bookingRequest, requestSpec, responseSpec)));
+            }
+            List<CreateBookingResponse> responses = new ArrayList<>();
+            for (Future<CreateBookingResponse> future : futures) {
+                responses.add(future.get());
+            }
+            return responses;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while creating bookings", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException("Failed to create bookings", e.getCause());
+        }
     }
 }
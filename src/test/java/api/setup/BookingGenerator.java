@@ -0,0 +1,184 @@
+package api.setup;
+
+import pojo.BookingDates;
+import pojo.BookingRequest;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Seeded, lazy generator of synthetic {@link BookingRequest}s for seeding and load runs.
+ * Booking {@code i} is a pure function of {@code (seed, i)}: every draw hashes the index with SplitMix64 instead of
+ * advancing a shared random, so results are reproducible, order-independent and safe for parallel streams.
+ * Names, needs and dates come from prebuilt tables, so the only allocations per booking are the two POJOs.
+ */
+public class BookingGenerator {
+
+    private static final String[] DEFAULT_FIRST_NAMES = {
+            "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "William", "Elizabeth",
+            "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen"};
+    private static final String[] DEFAULT_LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin"};
+    private static final String[] DEFAULT_ADDITIONAL_NEEDS = {
+            "Breakfast", "Lunch", "Dinner", "air conditioning", "extra bed", "late checkout", null};
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final int DRAWS_PER_BOOKING = 7; // distinct hash input per (index, draw) pair
+    private static final double UNIT = 0x1.0p-53;
+
+    private final long seed;
+    private String[] firstNames = DEFAULT_FIRST_NAMES;
+    private String[] lastNames = DEFAULT_LAST_NAMES;
+    private String[] additionalNeeds = DEFAULT_ADDITIONAL_NEEDS;
+    private double nameSkew = 1.0;
+    private int minPrice = 50;
+    private int maxPrice = 1000;
+    private double depositPaidRatio = 0.5;
+    private LocalDate checkinFrom = LocalDate.of(2025, 1, 1);
+    private int checkinDays = 365;
+    private int minNights = 1;
+    private int maxNights = 14;
+    private LocalDate[] dates;
+
+    public BookingGenerator(long seed) {
+        this.seed = seed;
+        buildDates();
+    }
+
+    public BookingGenerator firstNames(String... firstNames) {
+        this.firstNames = firstNames.clone();
+        return this;
+    }
+
+    public BookingGenerator lastNames(String... lastNames) {
+        this.lastNames = lastNames.clone();
+        return this;
+    }
+
+    /**
+     * Values to pick {@code additionalneeds} from; include {@code null} to generate bookings without it.
+     */
+    public BookingGenerator additionalNeeds(String... additionalNeeds) {
+        this.additionalNeeds = additionalNeeds.clone();
+        return this;
+    }
+
+    /**
+     * 1.0 picks names uniformly; larger values make the first names of each list increasingly popular, which
+     * gives name filters a realistic mix of very common and rare matches.
+     */
+    public BookingGenerator nameSkew(double nameSkew) {
+        if (nameSkew < 1.0) {
+            throw new IllegalArgumentException("Name skew must be >= 1.0: " + nameSkew);
+        }
+        this.nameSkew = nameSkew;
+        return this;
+    }
+
+    /**
+     * Total price drawn uniformly from {@code [minPrice, maxPrice]}.
+     */
+    public BookingGenerator priceRange(int minPrice, int maxPrice) {
+        if (minPrice > maxPrice) {
+            throw new IllegalArgumentException("minPrice > maxPrice");
+        }
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        return this;
+    }
+
+    public BookingGenerator depositPaidRatio(double depositPaidRatio) {
+        this.depositPaidRatio = depositPaidRatio;
+        return this;
+    }
+
+    /**
+     * Check-in drawn uniformly from {@code [from, to]}.
+     */
+    public BookingGenerator checkinBetween(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Check-in range ends before it starts");
+        }
+        this.checkinFrom = from;
+        this.checkinDays = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        buildDates();
+        return this;
+    }
+
+    /**
+     * Nights between check-in and check-out drawn uniformly from {@code [minNights, maxNights]}.
+     */
+    public BookingGenerator stayLength(int minNights, int maxNights) {
+        if (minNights < 0 || minNights > maxNights) {
+            throw new IllegalArgumentException("Invalid stay length range");
+        }
+        this.minNights = minNights;
+        this.maxNights = maxNights;
+        buildDates();
+        return this;
+    }
+
+    public BookingRequest generate(long index) {
+        long base = seed + index * DRAWS_PER_BOOKING * GOLDEN_GAMMA;
+        int checkin = (int) bounded(base, 5, checkinDays);
+        int nights = minNights + (int) bounded(base, 6, maxNights - minNights + 1);
+
+        BookingDates bookingDates = new BookingDates();
+        bookingDates.setCheckin(dates[checkin]);
+        bookingDates.setCheckout(dates[checkin + nights]);
+
+        BookingRequest booking = new BookingRequest();
+        booking.setFirstname(firstNames[skewed(base, 0, firstNames.length)]);
+        booking.setLastname(lastNames[skewed(base, 1, lastNames.length)]);
+        booking.setTotalprice(minPrice + (int) bounded(base, 2, (long) maxPrice - minPrice + 1));
+        booking.setDepositpaid(unit(base, 3) < depositPaidRatio);
+        booking.setBookingdates(bookingDates);
+        booking.setAdditionalneeds(additionalNeeds[(int) bounded(base, 4, additionalNeeds.length)]);
+        return booking;
+    }
+
+    /**
+     * Bookings {@code 0 .. count-1}, generated on demand. The stream may be made parallel without changing its
+     * content.
+     */
+    public Stream<BookingRequest> stream(long count) {
+        return LongStream.range(0, count).mapToObj(this::generate);
+    }
+
+    /**
+     * Unbounded sequence of bookings starting at index 0.
+     */
+    public Stream<BookingRequest> stream() {
+        return LongStream.iterate(0, index -> index + 1).mapToObj(this::generate);
+    }
+
+    private void buildDates() {
+        dates = new LocalDate[checkinDays + maxNights];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = checkinFrom.plusDays(i);
+        }
+    }
+
+    private int skewed(long base, int draw, int size) {
+        double u = unit(base, draw);
+        return (int) (size * (nameSkew == 1.0 ? u : Math.pow(u, nameSkew)));
+    }
+
+    private static long bounded(long base, int draw, long bound) {
+        return (long) (unit(base, draw) * bound);
+    }
+
+    private static double unit(long base, int draw) {
+        return (mix64(base + draw * GOLDEN_GAMMA) >>> 11) * UNIT;
+    }
+
+    // SplitMix64 finaliser, see java.util.SplittableRandom
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
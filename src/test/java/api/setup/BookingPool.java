@@ -0,0 +1,136 @@
+package api.setup;
+
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.ResponseSpecification;
+import pojo.BookingRequest;
+import pojo.CreateBookingResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pool of pre-created bookings handed out exclusively to tests.
+ * Bookings are created concurrently in batches and the pool refills itself in the background whenever it drops
+ * below the low watermark, so fixture creation stays off the critical path of the tests that use it.
+ */
+public class BookingPool {
+
+    private final List<BookingRequest> templates;
+    private final RequestSpecification requestSpec;
+    private final ResponseSpecification responseSpec;
+    private final int batchSize;
+    private final int lowWatermark;
+    private final BlockingQueue<CreateBookingResponse> available = new LinkedBlockingQueue<>();
+    private final AtomicReference<CompletableFuture<Void>> refill =
+            new AtomicReference<>(CompletableFuture.completedFuture(null));
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * @param templates    booking requests cycled through when creating new bookings
+     * @param batchSize    number of bookings created concurrently per refill
+     * @param lowWatermark refill starts as soon as fewer bookings than this are available
+     */
+    public BookingPool(List<BookingRequest> templates,
+                       RequestSpecification requestSpec,
+                       ResponseSpecification responseSpec,
+                       int batchSize,
+                       int lowWatermark) {
+        if (templates.isEmpty()) {
+            throw new IllegalArgumentException("At least one booking template is required");
+        }
+        this.templates = List.copyOf(templates);
+        this.requestSpec = requestSpec;
+        this.responseSpec = responseSpec;
+        this.batchSize = batchSize;
+        this.lowWatermark = lowWatermark;
+    }
+
+    /**
+     * Takes a booking for exclusive use, waiting for the running refill if the pool is empty.
+     */
+    public CreateBookingResponse lease() {
+        while (true) {
+            CreateBookingResponse booking = available.poll();
+            if (booking != null) {
+                if (available.size() < lowWatermark) {
+                    refill();
+                }
+                return booking;
+            }
+            try {
+                refill().join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Hands back a leased booking that the test left untouched (not patched or deleted) so it can be reused.
+     */
+    public void release(CreateBookingResponse booking) {
+        available.offer(booking);
+    }
+
+    /**
+     * Starts filling the pool without waiting for it, e.g. at suite start.
+     */
+    public void prefill() {
+        refill();
+    }
+
+    public int available() {
+        return available.size();
+    }
+
+    /**
+     * Waits for a running refill and stops the pool's threads, so every booking it created is registered with
+     * {@link BookingRegistry} before the leftovers are deleted. The pool cannot be refilled afterwards.
+     */
+    public void shutdown() {
+        try {
+            refill.get().join();
+        } catch (CompletionException e) {
+            // A failed batch has nothing left in flight; the bookings it did create are registered
+        }
+        executor.shutdown();
+    }
+
+    private CompletableFuture<Void> refill() {
+        CompletableFuture<Void> current = refill.get();
+        if (!current.isDone()) {
+            return current; // a batch is already being created
+        }
+        CompletableFuture<Void> next = new CompletableFuture<>();
+        if (!refill.compareAndSet(current, next)) {
+            return refill.get();
+        }
+        executor.execute(() -> {
+            try {
+                available.addAll(BookingFactory.createBookings(nextBatch(), requestSpec, responseSpec));
+                next.complete(null);
+            } catch (Throwable t) {
+                next.completeExceptionally(t);
+            }
+        });
+        return next;
+    }
+
+    private List<BookingRequest> nextBatch() {
+        List<BookingRequest> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(templates.get(i % templates.size()));
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,107 @@
+package api.setup;
+
+import io.restassured.RestAssured;
+import io.restassured.specification.RequestSpecification;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+/**
+ * Ids of every booking created through {@link BookingFactory} in this JVM, so whatever the tests leave behind can be
+ * deleted when the suite finishes and the target's dataset (and the cost of every filtered GET /booking) does not
+ * grow from run to run. Bookings a test already deleted are found gone and only counted.
+ */
+public final class BookingRegistry {
+
+    private static final Set<Integer> CREATED = ConcurrentHashMap.newKeySet();
+
+    private BookingRegistry() {
+    }
+
+    static void created(int bookingId) {
+        CREATED.add(bookingId);
+    }
+
+    public static int size() {
+        return CREATED.size();
+    }
+
+    /**
+     * Outcome of {@link #deleteLeftovers}.
+     *
+     * @param registered  bookings created since the last cleanup
+     * @param leaked      bookings that still existed and were deleted
+     * @param alreadyGone bookings the tests had deleted themselves (404 or 405)
+     * @param failed      bookings that could not be deleted; they stay registered
+     * @param firstError  why the first of them failed, {@code null} if none did
+     */
+    public record Cleanup(int registered, long leaked, long alreadyGone, long failed, String firstError,
+                          Duration elapsed) {
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "Booking cleanup: %d created, %d leaked and deleted, %d already deleted, %d failed in %d ms%s",
+                    registered, leaked, alreadyGone, failed, elapsed.toMillis(),
+                    firstError == null ? "" : " (first failure: " + firstError + ")");
+        }
+    }
+
+    /**
+     * Deletes every registered booking with {@code parallelism} requests in flight, all authorised by
+     * {@code token}, and unregisters those that are gone afterwards.
+     */
+    public static Cleanup deleteLeftovers(RequestSpecification requestSpec, String token, int parallelism) {
+        long start = System.nanoTime();
+        List<Integer> bookingIds = new ArrayList<>(CREATED);
+        LongAdder leaked = new LongAdder();
+        LongAdder alreadyGone = new LongAdder();
+        LongAdder failed = new LongAdder();
+        AtomicReference<String> firstError = new AtomicReference<>();
+        Semaphore inFlight = new Semaphore(Math.max(1, parallelism));
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int bookingId : bookingIds) {
+                inFlight.acquireUninterruptibly();
+                pool.execute(() -> {
+                    try {
+                        // Without the global response time expectation: a slow delete is still a delete
+                        int status = RestAssured.given()
+                                                .spec(requestSpec)
+                                                .expect().time(greaterThanOrEqualTo(0L))
+                                                .given()
+                                                .cookie("token", token)
+                                                .pathParam("id", bookingId)
+                                                .delete("/booking/{id}")
+                                                .statusCode();
+                        if (status / 100 == 2) {
+                            leaked.increment();
+                        } else if (status == 404 || status == 405) {
+                            alreadyGone.increment();
+                        } else {
+                            throw new IllegalStateException("DELETE /booking/" + bookingId + " returned " + status);
+                        }
+                        CREATED.remove(bookingId);
+                    } catch (Throwable e) {
+                        // RestAssured also throws assertion errors and undeclared IOExceptions
+                        failed.increment();
+                        firstError.compareAndSet(null, e.toString());
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return new Cleanup(bookingIds.size(), leaked.sum(), alreadyGone.sum(), failed.sum(), firstError.get(),
+                Duration.ofNanos(System.nanoTime() - start));
+    }
+}
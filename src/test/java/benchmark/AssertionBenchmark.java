@@ -0,0 +1,58 @@
+package benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pojo.CreateBookingResponse;
+import utils.Assertions;
+import utils.JsonDiff;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verification done after each PATCH: the compiled field comparison of {@link Assertions} and the JSON
+ * structural diff of {@link JsonDiff}, both on two equal but distinct bookings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssertionBenchmark {
+
+    private CreateBookingResponse original;
+    private CreateBookingResponse updated;
+    private byte[] updatedJson;
+    private JsonNode expected;
+
+    @Setup
+    public void setUp() throws IOException {
+        original = BenchmarkData.createBookingResponse(1);
+        byte[] json = BenchmarkData.MAPPER.writeValueAsBytes(original);
+        updated = BenchmarkData.MAPPER.readValue(json, CreateBookingResponse.class);
+        updatedJson = BenchmarkData.MAPPER.writeValueAsBytes(updated.getBooking());
+        expected = JsonDiff.toTree(original.getBooking());
+    }
+
+    @Benchmark
+    public CreateBookingResponse assertObjects() {
+        Assertions.assertObjects(original, updated, "bookingid");
+        return updated;
+    }
+
+    @Benchmark
+    public List<String> jsonDiffFromRawBody() {
+        return JsonDiff.diff(expected, JsonDiff.parse(updatedJson));
+    }
+}
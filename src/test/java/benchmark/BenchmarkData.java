@@ -0,0 +1,56 @@
+package benchmark;
+
+import api.setup.BookingDataLoader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.json.JSONObject;
+import pojo.BookingRequest;
+import pojo.CreateBookingResponse;
+
+import java.io.IOException;
+
+/**
+ * Inputs shared by the benchmarks, taken from the suite's own test data.
+ */
+final class BenchmarkData {
+
+    // Same module discovery as RestAssured's default Jackson mapper
+    static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    private BenchmarkData() {
+    }
+
+    static BookingRequest booking() throws IOException {
+        return BookingDataLoader.load("src/test/resources/bookingData.json").get(0);
+    }
+
+    static CreateBookingResponse createBookingResponse(int bookingId) throws IOException {
+        CreateBookingResponse response = new CreateBookingResponse();
+        response.setBookingid(bookingId);
+        response.setBooking(booking());
+        return response;
+    }
+
+    /**
+     * A PATCH body built the way PatchBookingTests builds them.
+     */
+    static String patchBody() {
+        JSONObject bookingDates = new JSONObject();
+        bookingDates.put("checkin", "2025-08-09");
+        bookingDates.put("checkout", "2025-08-25");
+        JSONObject body = new JSONObject();
+        body.put("firstname", "Updated");
+        body.put("bookingdates", bookingDates);
+        return body.toString();
+    }
+
+    /**
+     * A GET /booking response body with {@code size} ids.
+     */
+    static String bookingIds(int size) {
+        StringBuilder json = new StringBuilder(size * 18).append('[');
+        for (int i = 1; i <= size; i++) {
+            json.append(i > 1 ? "," : "").append("{\"bookingid\":").append(i).append('}');
+        }
+        return json.append(']').toString();
+    }
+}
@@ -0,0 +1,69 @@
+package benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.restassured.path.json.JsonPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.IdSet;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Extracting the ids from a GET /booking response, as {@code RestClient.getList(.., "bookingid", Integer.class)}
+ * does with {@link JsonPath}, next to a plain Jackson tree walk and the streaming {@link IdSet} parse that
+ * {@code RestClient.getIdSet} uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingListBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int size;
+
+    private String payload;
+    private byte[] payloadBytes;
+
+    @Setup
+    public void setUp() {
+        payload = BenchmarkData.bookingIds(size);
+        payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<Integer> jsonPathGetList() {
+        return JsonPath.from(payload).getList("bookingid", Integer.class);
+    }
+
+    @Benchmark
+    public List<Integer> jacksonTree() throws IOException {
+        JsonNode bookings = BenchmarkData.MAPPER.readTree(payload);
+        List<Integer> ids = new ArrayList<>(bookings.size());
+        for (JsonNode booking : bookings) {
+            ids.add(booking.get("bookingid").intValue());
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public IdSet streamingIdSet() throws IOException {
+        return IdSet.parse(new ByteArrayInputStream(payloadBytes), "bookingid");
+    }
+}
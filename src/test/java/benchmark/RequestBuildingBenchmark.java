@@ -0,0 +1,97 @@
+package benchmark;
+
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.builder.ResponseSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.ResponseSpecification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pojo.BookingRequest;
+import utils.RestClient;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * What RestAssured and {@link RestClient} cost per call without the network: the spec is built like the suite's,
+ * but a filter answers every request with a canned response, so the measured time is spec merging, Groovy path
+ * templating, body serialisation, the filter chain, response parsing and status validation.
+ * The suite's response-time expectation is left out, as a canned response has no time to validate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestBuildingBenchmark {
+
+    private RequestSpecification requestSpec;
+    private RestClient client;
+    private BookingRequest booking;
+    private String patchBody;
+
+    @Setup
+    public void setUp() throws Exception {
+        booking = BenchmarkData.booking();
+        patchBody = BenchmarkData.patchBody();
+        byte[] cannedBody = BenchmarkData.MAPPER.writeValueAsBytes(booking);
+
+        requestSpec = new RequestSpecBuilder()
+                .setBaseUri("http://localhost:1") // never connected to, the filter below answers first
+                .setContentType(ContentType.JSON)
+                .addFilter((request, response, ctx) -> new ResponseBuilder()
+                        .setStatusCode(request.getMethod().equals("DELETE") ? 201 : 200)
+                        .setContentType(ContentType.JSON)
+                        .setBody(cannedBody)
+                        .build())
+                .build();
+        ResponseSpecification responseSpec = new ResponseSpecBuilder()
+                .expectContentType(ContentType.JSON)
+                .build();
+        client = new RestClient(requestSpec, responseSpec);
+    }
+
+    @Benchmark
+    public RequestSpecification givenSpec() {
+        return given().spec(requestSpec)
+                      .cookie("token", "abc123")
+                      .pathParam("id", 1)
+                      .body(patchBody);
+    }
+
+    @Benchmark
+    public Response restClientGet() {
+        return client.withPathParam("id", 1).get("/booking/{id}");
+    }
+
+    @Benchmark
+    public BookingRequest restClientGetTyped() {
+        return client.withPathParam("id", 1).get("/booking/{id}", BookingRequest.class);
+    }
+
+    @Benchmark
+    public Response restClientPatchStringBody() {
+        return client.withToken("abc123")
+                     .withPathParam("id", 1)
+                     .withBody(patchBody)
+                     .patch("/booking/{id}");
+    }
+
+    @Benchmark
+    public Response restClientPostPojoBody() {
+        return client.withBody(booking).post("/booking");
+    }
+}
@@ -0,0 +1,89 @@
+package benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pojo.BookingDates;
+import pojo.BookingRequest;
+import pojo.CreateBookingResponse;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request and response body handling: Jackson for the POJOs (including the {@code LocalDate} fields of
+ * {@link BookingDates}) and org.json for the PATCH bodies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerialisationBenchmark {
+
+    private BookingRequest booking;
+    private byte[] createBookingResponseJson;
+    private byte[] bookingDatesJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        booking = BenchmarkData.booking();
+        createBookingResponseJson = BenchmarkData.MAPPER.writeValueAsBytes(BenchmarkData.createBookingResponse(1));
+        bookingDatesJson = BenchmarkData.MAPPER.writeValueAsBytes(booking.getBookingdates());
+    }
+
+    @Benchmark
+    public byte[] writeBookingRequest() throws JsonProcessingException {
+        return BenchmarkData.MAPPER.writeValueAsBytes(booking);
+    }
+
+    @Benchmark
+    public CreateBookingResponse readCreateBookingResponse() throws IOException {
+        return BenchmarkData.MAPPER.readValue(createBookingResponseJson, CreateBookingResponse.class);
+    }
+
+    @Benchmark
+    public byte[] writeBookingDates() throws JsonProcessingException {
+        return BenchmarkData.MAPPER.writeValueAsBytes(booking.getBookingdates());
+    }
+
+    @Benchmark
+    public BookingDates readBookingDates() throws IOException {
+        return BenchmarkData.MAPPER.readValue(bookingDatesJson, BookingDates.class);
+    }
+
+    /**
+     * Date arithmetic as the PATCH tests do it before building the body.
+     */
+    @Benchmark
+    public String shiftCheckinDate() {
+        return booking.getBookingdates().getCheckin().plusDays(-5).format(DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+
+    @Benchmark
+    public LocalDate parseDate() {
+        return LocalDate.parse("2025-08-14");
+    }
+
+    @Benchmark
+    public String jsonObjectPatchBody() {
+        return BenchmarkData.patchBody();
+    }
+
+    @Benchmark
+    public String jsonObjectFromPojo() {
+        return new JSONObject(booking).toString();
+    }
+}
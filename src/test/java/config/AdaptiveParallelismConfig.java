@@ -0,0 +1,32 @@
+package config;
+
+/**
+ * Settings of the adaptive test parallelism of the functional suite ({@code suite.AdaptiveParallelism}).
+ * Each value can be overridden with a system property, e.g. {@code -Dsuite.threads.initial=8}.
+ *
+ * @param enabled          {@code true} adapts the number of tests running at once; {@code false} (the default) runs
+ *                         as many as the suite's {@code thread-count}
+ * @param initial          tests allowed to run at once when the suite starts
+ * @param min              the limit never drops below this
+ * @param max              upper bound of the limit, and the suite's {@code thread-count}; {@code 0} keeps the
+ *                         {@code thread-count} of the suite file
+ * @param latencyTolerance back off when requests get slower than this multiple of their lowest mean latency
+ * @param backoff          factor the limit is multiplied with on backoff
+ */
+public record AdaptiveParallelismConfig(boolean enabled,
+                                        int initial,
+                                        int min,
+                                        int max,
+                                        double latencyTolerance,
+                                        double backoff) {
+
+    public static AdaptiveParallelismConfig fromSystemProperties() {
+        return new AdaptiveParallelismConfig(
+                Boolean.parseBoolean(System.getProperty("suite.adaptive", "false")),
+                Integer.getInteger("suite.threads.initial", 4),
+                Integer.getInteger("suite.threads.min", 1),
+                Integer.getInteger("suite.threads.max", 0),
+                Double.parseDouble(System.getProperty("suite.adaptive.latencyTolerance", "2.0")),
+                Double.parseDouble(System.getProperty("suite.adaptive.backoff", "0.75")));
+    }
+}
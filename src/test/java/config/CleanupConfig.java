@@ -0,0 +1,17 @@
+package config;
+
+/**
+ * Settings of the bulk delete of leftover bookings when a suite finishes ({@code api.setup.BookingRegistry}).
+ * Each value can be overridden with a system property, e.g. {@code -Dcleanup.parallelism=16}.
+ *
+ * @param enabled     {@code false} leaves every booking the suite created on the target
+ * @param parallelism deletes in flight at once
+ */
+public record CleanupConfig(boolean enabled, int parallelism) {
+
+    public static CleanupConfig fromSystemProperties() {
+        return new CleanupConfig(
+                Boolean.parseBoolean(System.getProperty("cleanup.enabled", "true")),
+                Integer.getInteger("cleanup.parallelism", 8));
+    }
+}
@@ -4,4 +4,12 @@ public final class Constants {
     public static final String BASE_URL = "https://restful-booker.herokuapp.com";
     public static final String USERNAME = "admin";
     public static final String PASSWORD = "password123";
+
+    // -Dbooker.stub=true runs the suite against the embedded stand-in server instead of BASE_URL
+    public static final String STUB_PROPERTY = "booker.stub";
+    // -Dbooker.record=<file> appends every exchange with the API to an exchange log, -Dbooker.replay=<file> serves them
+    public static final String RECORD_PROPERTY = "booker.record";
+    public static final String REPLAY_PROPERTY = "booker.replay";
+    // -Dbooking.seed=<n> varies the generated fixture bookings; the default seed keeps them the same from run to run
+    public static final String BOOKING_SEED_PROPERTY = "booking.seed";
 }
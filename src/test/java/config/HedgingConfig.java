@@ -0,0 +1,44 @@
+package config;
+
+import java.time.Duration;
+
+/**
+ * Hedging and retry settings for the idempotent GETs of {@link utils.RestClient}.
+ * Each value can be overridden with a system property, e.g. {@code -Dhedge.enabled=true}.
+ *
+ * @param hedge          send a second request when the first is slower than {@code percentile} of its route
+ * @param percentile     latency percentile of the route after which the hedge is sent
+ * @param minDelay       never hedge sooner than this, so fast routes are not doubled by noise
+ * @param minSamples     responses a route needs before its percentile is trusted; it is not hedged until then
+ * @param retries        extra attempts after a connection error (refused, reset, connect or pool timeout, no
+ *                       response); {@code 0}, the default, fails on the first. A read timeout is never retried
+ * @param retryBaseDelay upper bound of the first backoff; it doubles per retry, and the actual delay is drawn
+ *                       uniformly below it (full jitter)
+ * @param retryMaxDelay  cap of the backoff bound
+ */
+public record HedgingConfig(boolean hedge,
+                            double percentile,
+                            Duration minDelay,
+                            int minSamples,
+                            int retries,
+                            Duration retryBaseDelay,
+                            Duration retryMaxDelay) {
+
+    public static HedgingConfig fromSystemProperties() {
+        return new HedgingConfig(
+                Boolean.getBoolean("hedge.enabled"),
+                Double.parseDouble(System.getProperty("hedge.percentile", "95")),
+                Duration.ofMillis(Long.getLong("hedge.minDelayMs", 50)),
+                Integer.getInteger("hedge.minSamples", 20),
+                Integer.getInteger("retry.attempts", 0),
+                Duration.ofMillis(Long.getLong("retry.baseDelayMs", 100)),
+                Duration.ofMillis(Long.getLong("retry.maxDelayMs", 2_000)));
+    }
+
+    /**
+     * Neither hedges nor retries; calls go straight through.
+     */
+    public static HedgingConfig none() {
+        return new HedgingConfig(false, 95, Duration.ZERO, Integer.MAX_VALUE, 0, Duration.ZERO, Duration.ZERO);
+    }
+}
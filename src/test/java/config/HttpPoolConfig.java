@@ -0,0 +1,36 @@
+package config;
+
+import java.time.Duration;
+
+/**
+ * HTTP connection pool settings shared by {@link api.setup.BaseTest} and every {@link utils.RestClient}.
+ * Each value can be overridden with a system property, e.g. {@code -Dhttp.pool.maxTotal=200}. The default size
+ * covers the suite's {@code thread-count} (32) plus the two 50-caller contention races running at once.
+ *
+ * @param maxTotal       maximum number of pooled connections across all routes
+ * @param maxPerRoute    maximum number of pooled connections per host
+ * @param keepAlive      how long an idle connection is kept when the server does not send a Keep-Alive timeout
+ * @param idleTimeout    idle connections older than this are evicted in the background
+ * @param leaseTimeout   how long a request waits for a pooled connection before failing
+ * @param connectTimeout TCP (and TLS) connect timeout
+ * @param socketTimeout  read timeout for a single response
+ */
+public record HttpPoolConfig(int maxTotal,
+                             int maxPerRoute,
+                             Duration keepAlive,
+                             Duration idleTimeout,
+                             Duration leaseTimeout,
+                             Duration connectTimeout,
+                             Duration socketTimeout) {
+
+    public static HttpPoolConfig fromSystemProperties() {
+        return new HttpPoolConfig(
+                Integer.getInteger("http.pool.maxTotal", 160),
+                Integer.getInteger("http.pool.maxPerRoute", 160),
+                Duration.ofMillis(Long.getLong("http.pool.keepAliveMs", 30_000)),
+                Duration.ofMillis(Long.getLong("http.pool.idleTimeoutMs", 60_000)),
+                Duration.ofMillis(Long.getLong("http.pool.leaseTimeoutMs", 30_000)),
+                Duration.ofMillis(Long.getLong("http.connectTimeoutMs", 5_000)),
+                Duration.ofMillis(Long.getLong("http.socketTimeoutMs", 30_000)));
+    }
+}
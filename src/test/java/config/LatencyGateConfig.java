@@ -0,0 +1,68 @@
+package config;
+
+import java.nio.file.Path;
+
+/**
+ * Settings of the latency regression gate run after the suite ({@code suite.LatencyGate}, {@code suite.ShardMerge}).
+ * Each value can be overridden with a system property, e.g. {@code -Dlatency.tolerance.p99=1.0}.
+ *
+ * @param enabled        {@code false} only records the run, it never fails the build
+ * @param baselineDir    directory of committed baselines, one file per suite; a suite without one is only recorded,
+ *                       never compared with an earlier local run, which is too noisy to be a reference
+ * @param currentDir     where each run's histograms and percentiles are written, one file per suite
+ * @param p50Tolerance   allowed relative increase of p50, e.g. {@code 0.5} for 50% slower
+ * @param p95Tolerance   allowed relative increase of p95
+ * @param p99Tolerance   allowed relative increase of p99
+ * @param minDeltaMillis increases smaller than this are ignored, so fast routes do not fail on noise
+ * @param minSamples     routes with fewer calls than this in either run are not compared
+ */
+public record LatencyGateConfig(boolean enabled,
+                                Path baselineDir,
+                                Path currentDir,
+                                double p50Tolerance,
+                                double p95Tolerance,
+                                double p99Tolerance,
+                                double minDeltaMillis,
+                                int minSamples) {
+
+    public static final String SHARD_INFIX = ".shard-";
+    public static final String HISTOGRAM_EXTENSION = ".hist";
+
+    public static LatencyGateConfig fromSystemProperties() {
+        return new LatencyGateConfig(
+                Boolean.parseBoolean(System.getProperty("latency.gate", "true")),
+                Path.of(System.getProperty("latency.baselineDir", "src/test/resources/latency-baseline")),
+                Path.of(System.getProperty("latency.currentDir", "target/latency")),
+                Double.parseDouble(System.getProperty("latency.tolerance.p50", "0.5")),
+                Double.parseDouble(System.getProperty("latency.tolerance.p95", "0.75")),
+                Double.parseDouble(System.getProperty("latency.tolerance.p99", "1.0")),
+                Double.parseDouble(System.getProperty("latency.tolerance.minDeltaMs", "50")),
+                Integer.getInteger("latency.minSamples", 5));
+    }
+
+    /**
+     * File name used for a suite in both directories, e.g. {@code booker-tests.tsv}.
+     */
+    public static String fileName(String suiteName) {
+        return stem(suiteName) + ".tsv";
+    }
+
+    /**
+     * File an unsharded run writes its histograms to, e.g. {@code booker-tests.hist}, for {@code suite.LatencyGate}.
+     */
+    public static String histogramFileName(String suiteName) {
+        return stem(suiteName) + HISTOGRAM_EXTENSION;
+    }
+
+    /**
+     * File a shard writes its histograms to, e.g. {@code booker-tests.shard-1-of-4.hist}; {@code suite.ShardMerge}
+     * adds the shards up under {@link #fileName(String)} of the suite.
+     */
+    public static String shardFileName(String suiteName, int index, int count) {
+        return stem(suiteName) + SHARD_INFIX + index + "-of-" + count + HISTOGRAM_EXTENSION;
+    }
+
+    private static String stem(String suiteName) {
+        return suiteName.toLowerCase().replaceAll("[^a-z0-9]+", "-");
+    }
+}
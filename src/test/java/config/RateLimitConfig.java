@@ -0,0 +1,68 @@
+package config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Client-side request budgets applied to every call made through the shared request specification.
+ * Each value can be overridden with a system property, e.g. {@code -Drate.global=20}; nothing is limited by default.
+ *
+ * @param global    budget shared by all requests, {@code null} for none
+ * @param endpoints budgets per route, keyed like {@code PATCH /booking/{id}}, on top of the global one;
+ *                  {@code -Drate.endpoints="POST /booking=2,PATCH /booking/{id}=5:10"} (requests per second, optional
+ *                  burst after the colon)
+ * @param maxWait   how long a request may wait for its turn before it is shed; {@code 0} sheds every request
+ *                  over budget at once
+ */
+public record RateLimitConfig(Budget global, Map<String, Budget> endpoints, Duration maxWait) {
+
+    /**
+     * @param perSecond sustained requests per second
+     * @param burst     requests that may go out back to back after an idle period
+     */
+    public record Budget(double perSecond, int burst) {
+
+        public Budget {
+            if (perSecond <= 0 || burst < 1) {
+                throw new IllegalArgumentException(
+                        "Expected a positive rate and burst, got " + perSecond + ":" + burst);
+            }
+        }
+
+        /**
+         * Parses {@code rate} or {@code rate:burst}; the burst defaults to one second's worth.
+         */
+        static Budget parse(String value) {
+            String[] parts = value.trim().split(":");
+            double perSecond = Double.parseDouble(parts[0]);
+            int burst = parts.length > 1 ? Integer.parseInt(parts[1]) : (int) Math.max(1, Math.ceil(perSecond));
+            return new Budget(perSecond, burst);
+        }
+    }
+
+    public static RateLimitConfig fromSystemProperties() {
+        String global = System.getProperty("rate.global", "");
+        String burst = System.getProperty("rate.burst", "");
+        Map<String, Budget> endpoints = new LinkedHashMap<>();
+        for (String entry : System.getProperty("rate.endpoints", "").split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected 'METHOD /route=rate[:burst]' in rate.endpoints, got "
+                        + entry);
+            }
+            endpoints.put(entry.substring(0, separator).trim(), Budget.parse(entry.substring(separator + 1)));
+        }
+        return new RateLimitConfig(
+                global.isBlank() ? null : Budget.parse(burst.isBlank() ? global : global + ":" + burst),
+                endpoints,
+                Duration.ofMillis(Long.getLong("rate.maxWaitMs", 30_000)));
+    }
+
+    public boolean enabled() {
+        return global != null || !endpoints.isEmpty();
+    }
+}
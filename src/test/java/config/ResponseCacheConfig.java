@@ -0,0 +1,33 @@
+package config;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Settings of the read-through response cache of {@link utils.RestClient}.
+ * Each value can be overridden with a system property, e.g. {@code -Dcache.enabled=true}.
+ *
+ * @param enabled    {@code false} sends every GET
+ * @param maxEntries least recently used responses are evicted beyond this many
+ * @param ttl        cached responses older than this are fetched again
+ * @param routes     route templates whose GETs are cached, e.g. {@code -Dcache.routes=/booking/{id},/booking}
+ */
+public record ResponseCacheConfig(boolean enabled, int maxEntries, Duration ttl, Set<String> routes) {
+
+    public static ResponseCacheConfig fromSystemProperties() {
+        return new ResponseCacheConfig(
+                Boolean.getBoolean("cache.enabled"),
+                Integer.getInteger("cache.maxEntries", 1_000),
+                Duration.ofMillis(Long.getLong("cache.ttlMs", 30_000)),
+                Arrays.stream(System.getProperty("cache.routes", "/booking/{id}").split(","))
+                      .map(String::trim)
+                      .filter(route -> !route.isEmpty())
+                      .collect(Collectors.toUnmodifiableSet()));
+    }
+
+    public static ResponseCacheConfig none() {
+        return new ResponseCacheConfig(false, 0, Duration.ZERO, Set.of());
+    }
+}
@@ -0,0 +1,45 @@
+package config;
+
+import java.nio.file.Path;
+
+/**
+ * Settings of suite sharding and of the test duration history it balances on.
+ * Each value can be overridden with a system property, e.g. {@code -Dshard.index=1 -Dshard.count=4}.
+ *
+ * @param index     which shard this JVM runs, {@code 0} to {@code count - 1}
+ * @param count     number of shards the suite is split into; {@code 1} runs everything
+ * @param history   durations of earlier runs: {@code -Dtest.durations}, else the local history in {@code outputDir}
+ *                  (absent until an unsharded run wrote one: the suite is then split by method count). Every shard
+ *                  must read the same file, or they would split the suite differently
+ * @param outputDir where each run writes its measured durations and, when not sharded, the updated history
+ */
+public record ShardConfig(int index, int count, Path history, Path outputDir) {
+
+    public static final String HISTORY_FILE = "history.tsv";
+
+    public static ShardConfig fromSystemProperties() {
+        Path outputDir = Path.of(System.getProperty("test.durations.dir", "target/durations"));
+        String history = System.getProperty("test.durations");
+        ShardConfig config = new ShardConfig(
+                Integer.getInteger("shard.index", 0),
+                Integer.getInteger("shard.count", 1),
+                history != null ? Path.of(history) : outputDir.resolve(HISTORY_FILE),
+                outputDir);
+        if (config.count < 1 || config.index < 0 || config.index >= config.count) {
+            throw new IllegalArgumentException("shard.index must be in [0, shard.count), got index "
+                    + config.index + " of " + config.count);
+        }
+        return config;
+    }
+
+    public boolean sharded() {
+        return count > 1;
+    }
+
+    /**
+     * File this run's measured durations are written to, e.g. {@code run-shard-1-of-4.tsv}.
+     */
+    public Path runFile() {
+        return outputDir.resolve(sharded() ? "run-shard-" + index + "-of-" + count + ".tsv" : "run.tsv");
+    }
+}
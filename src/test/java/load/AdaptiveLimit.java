@@ -0,0 +1,234 @@
+package load;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that follows the target's capacity (AIMD, as TCP does with its window). Permits are taken for
+ * units of work (requests of a {@link LoadEngine} run, tests of a suite); samples are the latency and outcome of
+ * individual requests, fed back with {@link #onSample}.
+ * <p>
+ * Samples are judged in windows of at least as many requests as the limit allows in flight. A window with a failed
+ * request (exception, 429, 5xx) or with latency above {@code latencyTolerance} times the lowest mean latency seen for
+ * the same route multiplies the limit by {@code backoff}. A clean window in which all permits were in use grows it: doubling
+ * until the first backoff, then by one. The limit never leaves {@code [min, max]}.
+ * <p>
+ * Each window also estimates the concurrency the target sustains by Little's law (throughput × mean latency), which
+ * {@link #summary()} reports next to the limit.
+ */
+public class AdaptiveLimit {
+
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final int MIN_ROUTE_SAMPLES = 3;
+
+    private final String name;
+    private final int min;
+    private final int max;
+    private final double latencyTolerance;
+    private final double backoff;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    // Lowest mean latency per route over windows with enough of its requests: the latency without queueing
+    private final Map<String, Double> baselineNanos = new HashMap<>();
+    private int limit;
+    private int inFlight;
+    private boolean slowStart = true;
+
+    // Current window
+    private long windowStartNanos = System.nanoTime();
+    private int samples;
+    private int failures;
+    private long latencySumNanos;
+    private final Map<String, long[]> routes = new HashMap<>(); // route -> {count, latency sum}
+    private boolean saturated;
+
+    // Totals for the summary
+    private int lowest;
+    private int highest;
+    private int increases;
+    private int decreases;
+    private double littleConcurrency;
+    private long waitedNanos;
+
+    public AdaptiveLimit(String name, int initial, int min, int max, double latencyTolerance, double backoff) {
+        if (min < 1 || min > initial || initial > max) {
+            throw new IllegalArgumentException("Expected 1 <= min <= initial <= max, got " + min + ", " + initial
+                    + ", " + max);
+        }
+        if (latencyTolerance <= 1 || backoff <= 0 || backoff >= 1) {
+            throw new IllegalArgumentException("Expected latencyTolerance > 1 and 0 < backoff < 1, got "
+                    + latencyTolerance + " and " + backoff);
+        }
+        this.name = name;
+        this.min = min;
+        this.max = max;
+        this.latencyTolerance = latencyTolerance;
+        this.backoff = backoff;
+        this.limit = initial;
+        this.lowest = initial;
+        this.highest = initial;
+    }
+
+    /**
+     * Starts at {@code initial}, shrinks by a quarter on trouble down to 1, and lets latency double before backing
+     * off.
+     */
+    public static AdaptiveLimit of(String name, int initial, int max) {
+        return new AdaptiveLimit(name, initial, 1, max, 2.0, 0.75);
+    }
+
+    /**
+     * Takes a permit if one is free, for callers that shed work instead of queueing it.
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (inFlight >= limit) {
+                saturated = true;
+                return false;
+            }
+            take();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for a permit and returns how long that took, in nanoseconds.
+     */
+    public long acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            long waited = 0;
+            if (inFlight >= limit) {
+                saturated = true;
+                long start = System.nanoTime();
+                while (inFlight >= limit) {
+                    released.await();
+                }
+                waited = System.nanoTime() - start;
+                waitedNanos += waited;
+            }
+            take();
+            return waited;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Feeds back one request: {@code route} groups requests of comparable latency, e.g. {@code GET /booking/{id}}.
+     */
+    public void onSample(String route, long latencyNanos, boolean failed) {
+        lock.lock();
+        try {
+            samples++;
+            latencySumNanos += latencyNanos;
+            long[] totals = routes.computeIfAbsent(route, key -> new long[2]);
+            totals[0]++;
+            totals[1] += latencyNanos;
+            if (failed) {
+                failures++;
+            }
+            if (samples >= Math.max(MIN_WINDOW_SAMPLES, limit)) {
+                closeWindow();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String summary() {
+        lock.lock();
+        try {
+            return String.format("%s: limit %d (range %d-%d, %d increases, %d decreases), Little's law "
+                            + "concurrency %.1f, waited %.1f s for permits",
+                    name, limit, lowest, highest, increases, decreases, littleConcurrency,
+                    waitedNanos / 1e9);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+
+    private void take() {
+        inFlight++;
+        if (inFlight >= limit) {
+            saturated = true;
+        }
+    }
+
+    private void closeWindow() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-9, (now - windowStartNanos) / 1e9);
+        double meanLatencySeconds = latencySumNanos / 1e9 / samples;
+        littleConcurrency = samples / seconds * meanLatencySeconds;
+        boolean slow = latencyRatio() > latencyTolerance;
+
+        int previous = limit;
+        if (failures > 0 || slow) {
+            limit = Math.max(min, (int) (limit * backoff));
+            slowStart = false;
+        } else if (saturated) {
+            limit = Math.min(max, slowStart ? limit * 2 : limit + 1);
+        }
+        if (limit > previous) {
+            increases++;
+            released.signalAll();
+        } else if (limit < previous) {
+            decreases++;
+        }
+        lowest = Math.min(lowest, limit);
+        highest = Math.max(highest, limit);
+
+        windowStartNanos = now;
+        samples = 0;
+        failures = 0;
+        latencySumNanos = 0;
+        routes.clear();
+        saturated = inFlight >= limit;
+    }
+
+    // Mean latency of the window relative to each route's baseline, weighted by its requests
+    private double latencyRatio() {
+        double weighted = 0;
+        for (Map.Entry<String, long[]> entry : routes.entrySet()) {
+            long count = entry.getValue()[0];
+            double mean = (double) entry.getValue()[1] / count;
+            Double baseline = baselineNanos.get(entry.getKey());
+            if (baseline == null || count >= MIN_ROUTE_SAMPLES && mean < baseline) {
+                baselineNanos.put(entry.getKey(), Math.max(1, mean));
+            }
+            weighted += count * mean / baselineNanos.get(entry.getKey());
+        }
+        return weighted / samples;
+    }
+
+}
@@ -0,0 +1,122 @@
+package load;
+
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+/**
+ * Fires N simultaneous calls (e.g. PATCH/DELETE/GET on the same bookingid) behind a start gate, one virtual thread
+ * per caller, and collects a status histogram and latency distribution. Virtual threads keep even 10k callers cheap,
+ * without the memory of an OS thread each.
+ * Each caller's request is built before the gate opens so only the HTTP exchange itself races. Racers drop the
+ * response time expectation of the suite's global response specification: the race measures latency itself, and a
+ * caller queued behind thousands of others must not count as an error for being slow.
+ * A harness holds no per-run state and can be shared by data-provider driven tests.
+ */
+public class ContentionHarness {
+
+    private final RequestSpecification requestSpec;
+
+    public ContentionHarness(RequestSpecification requestSpec) {
+        this.requestSpec = requestSpec;
+    }
+
+    /**
+     * @param callers number of concurrent callers
+     * @param call    completes the pre-built request and executes it, e.g.
+     *                {@code request -> request.pathParam("id", id).delete("/booking/{id}")}
+     */
+    public Result race(int callers, Function<RequestSpecification, Response> call) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(callers); // all requests are built and waiting
+        CountDownLatch startGate = new CountDownLatch(1);   // released once to start every caller at once
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        Histogram latencies = new ConcurrentHistogram(3);
+        long[] gateOpenedAt = new long[1];
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                pool.submit(() -> {
+                    // Replaces the response time expectation inherited from the global response specification
+                    RequestSpecification request = given().spec(requestSpec)
+                            .expect().time(greaterThanOrEqualTo(0L))
+                            .given();
+                    ready.countDown();
+                    try {
+                        startGate.await();
+                        long start = System.nanoTime();
+                        int status = call.apply(request).statusCode();
+                        latencies.recordValue((System.nanoTime() - start) / 1_000);
+                        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+                    } catch (InterruptedException e) {
+                        errors.computeIfAbsent(e.getClass().getSimpleName(), key -> new LongAdder()).increment();
+                        Thread.currentThread().interrupt();
+                    } catch (Throwable e) {
+                        // e.g. a connection refused or reset under the burst, which RestAssured throws undeclared
+                        errors.computeIfAbsent(e.getClass().getSimpleName(), key -> new LongAdder()).increment();
+                    }
+                });
+            }
+            ready.await();
+            gateOpenedAt[0] = System.nanoTime();
+            startGate.countDown();
+        } // close() waits for every caller to finish
+
+        Map<Integer, Long> histogram = new TreeMap<>();
+        statuses.forEach((status, count) -> histogram.put(status, count.sum()));
+        Map<String, Long> errorTypes = new TreeMap<>();
+        errors.forEach((type, count) -> errorTypes.put(type, count.sum()));
+        return new Result(histogram, errorTypes, latencies, System.nanoTime() - gateOpenedAt[0]);
+    }
+
+    /**
+     * @param errorTypes callers whose call threw, counted by exception type
+     */
+    public record Result(Map<Integer, Long> statuses, Map<String, Long> errorTypes, Histogram latencies,
+                         long elapsedNanos) {
+
+        public long errors() {
+            return errorTypes.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public long count(int status) {
+            return statuses.getOrDefault(status, 0L);
+        }
+
+        public long count(IntPredicate status) {
+            return statuses.entrySet().stream()
+                           .filter(entry -> status.test(entry.getKey()))
+                           .mapToLong(Map.Entry::getValue)
+                           .sum();
+        }
+
+        public long total() {
+            return count(status -> true) + errors();
+        }
+
+        public double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("statuses=%s errors=%s p50=%.1fms p99=%.1fms max=%.1fms elapsed=%.1fms",
+                    statuses, errorTypes, percentileMillis(50), percentileMillis(99),
+                    latencies.getMaxValue() / 1_000.0, elapsedNanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free per-endpoint counters and latency histogram (microsecond resolution) written by load workers.
+ */
+class EndpointRecorder {
+
+    // In-flight count once the run stopped waiting: far enough below zero that late finishes never reach it
+    private static final long CLOSED = Long.MIN_VALUE / 2;
+
+    private final String name;
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final AtomicLong inFlight = new AtomicLong();
+
+    EndpointRecorder(String name) {
+        this.name = name;
+    }
+
+    void success(long latencyNanos) {
+        requests.increment();
+        latencies.recordValue(latencyNanos / 1_000);
+    }
+
+    void error(long latencyNanos) {
+        errors.increment();
+        success(latencyNanos);
+    }
+
+    void dropped() {
+        dropped.increment();
+    }
+
+    void started() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Ends a {@link #started} request; {@code false} when {@link #timeOutInFlight} already counted it, in which case
+     * its outcome must not be recorded.
+     */
+    boolean finished() {
+        return inFlight.getAndDecrement() > 0;
+    }
+
+    /**
+     * Counts every request still in flight as a timed-out error and ignores their outcomes from now on.
+     */
+    void timeOutInFlight() {
+        long pending = inFlight.getAndSet(CLOSED);
+        if (pending > 0) {
+            timedOut.add(pending);
+            errors.add(pending);
+            requests.add(pending);
+        }
+    }
+
+    void reset() {
+        latencies.reset();
+        requests.reset();
+        errors.reset();
+        dropped.reset();
+        timedOut.reset();
+        inFlight.set(0);
+    }
+
+    String name() {
+        return name;
+    }
+
+    Histogram latencies() {
+        return latencies;
+    }
+
+    long requests() {
+        return requests.sum();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    long droppedCount() {
+        return dropped.sum();
+    }
+
+    long timedOutCount() {
+        return timedOut.sum();
+    }
+}
@@ -0,0 +1,202 @@
+package load;
+
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.ResponseSpecification;
+import utils.RateLimitExceededException;
+import utils.RestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Open-model load generator on top of {@link RestClient}.
+ * Requests are started at the arrival rate dictated by a {@link LoadProfile}, independently of how fast the
+ * target answers, and latency is measured from the intended start time so a slow server cannot hide its own
+ * queueing delay (no coordinated omission).
+ */
+public class LoadEngine {
+
+    // Resolution at which the profile's rate is integrated into arrivals: bursts shorter than this may be missed
+    private static final long RATE_STEP_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final RequestSpecification requestSpec;
+    private final ResponseSpecification responseSpec;
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private int maxInFlight = 10_000;
+    private AdaptiveLimit adaptiveLimit;
+    private Duration drainTimeout = Duration.ofSeconds(30);
+
+    public LoadEngine(RequestSpecification requestSpec, ResponseSpecification responseSpec) {
+        this.requestSpec = requestSpec;
+        this.responseSpec = responseSpec;
+    }
+
+    /**
+     * Registers a call to include in the request mix. The call gets the shared {@link RestClient} and any exception
+     * or failed status assertion it throws is counted as an error.
+     */
+    public LoadEngine endpoint(String name, Function<RestClient, Response> call) {
+        return endpoint(name, 1, call);
+    }
+
+    public LoadEngine endpoint(String name, int weight, Function<RestClient, Response> call) {
+        if (weight < 1) {
+            throw new IllegalArgumentException("Weight must be positive: " + weight);
+        }
+        endpoints.add(new Endpoint(name, weight, call));
+        return this;
+    }
+
+    /**
+     * Arrivals beyond this many outstanding requests are dropped (and reported) instead of queued.
+     */
+    public LoadEngine maxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Bounds outstanding requests by {@code limit} instead of a fixed {@link #maxInFlight}: the limit grows while the
+     * target keeps up and shrinks when it slows down or fails, and arrivals beyond it are dropped. Drive the run
+     * above the target's capacity to find the throughput it sustains without timing out.
+     */
+    public LoadEngine adaptiveInFlight(AdaptiveLimit limit) {
+        this.adaptiveLimit = limit;
+        return this;
+    }
+
+    public LoadEngine drainTimeout(Duration drainTimeout) {
+        this.drainTimeout = drainTimeout;
+        return this;
+    }
+
+    public LoadReport run(LoadProfile profile) throws InterruptedException {
+        if (endpoints.isEmpty()) {
+            throw new IllegalStateException("No endpoints registered");
+        }
+        Endpoint[] mix = weightedMix();
+        List<EndpointRecorder> recorders = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            recorders.add(endpoint.recorder);
+            endpoint.recorder.reset();
+        }
+
+        ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        RestClient client = new RestClient(requestSpec, responseSpec);
+
+        long start = System.nanoTime();
+        long duration = profile.duration().toNanos();
+        long end = start + duration;
+        long next = start + nextArrival(profile, 0, duration);
+        long sequence = 0;
+        try {
+            while (next < end) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                    continue;
+                }
+                long intendedStart = next;
+                next = start + nextArrival(profile, intendedStart - start, duration);
+
+                Endpoint endpoint = mix[(int) (sequence++ % mix.length)];
+                if (adaptiveLimit != null ? !adaptiveLimit.tryAcquire() : !inFlight.tryAcquire()) {
+                    endpoint.recorder.dropped();
+                    continue;
+                }
+                endpoint.recorder.started();
+                workers.execute(() -> {
+                    long sent = System.nanoTime();
+                    boolean failed = false;
+                    boolean shed = false;
+                    try {
+                        endpoint.call.apply(client);
+                        if (endpoint.recorder.finished()) {
+                            endpoint.recorder.success(System.nanoTime() - intendedStart);
+                        }
+                    } catch (RateLimitExceededException e) {
+                        // Shed by the client-side budget before anything was sent, like an arrival over the limit
+                        shed = true;
+                        if (endpoint.recorder.finished()) {
+                            endpoint.recorder.dropped();
+                        }
+                    } catch (Throwable t) {
+                        failed = true;
+                        if (endpoint.recorder.finished()) {
+                            endpoint.recorder.error(System.nanoTime() - intendedStart);
+                        }
+                    } finally {
+                        if (adaptiveLimit != null) {
+                            // The target is judged by its own response time, not by the arrival's wait for a worker
+                            if (!shed) {
+                                adaptiveLimit.onSample(endpoint.recorder.name(), System.nanoTime() - sent, failed);
+                            }
+                            adaptiveLimit.release();
+                        } else {
+                            inFlight.release();
+                        }
+                    }
+                });
+            }
+        } finally {
+            workers.shutdown();
+            if (!workers.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                recorders.forEach(EndpointRecorder::timeOutInFlight);
+            }
+            workers.shutdownNow();
+        }
+        return LoadReport.of(Duration.ofNanos(System.nanoTime() - start), recorders);
+    }
+
+    /**
+     * Offset of the arrival due after the one at {@code fromNanos}: where the profile's rate, integrated from there,
+     * adds up to one request. Following the integral keeps ramps from zero and spikes shorter than the gap between
+     * two base-rate arrivals. Returns {@code durationNanos} when no further arrival is due.
+     */
+    private static long nextArrival(LoadProfile profile, long fromNanos, long durationNanos) {
+        double due = 1;
+        for (long t = fromNanos; t < durationNanos; t += RATE_STEP_NANOS) {
+            double perNano = profile.rateAt(t) / 1e9;
+            long step = Math.min(RATE_STEP_NANOS, durationNanos - t);
+            if (perNano * step >= due) {
+                return t + (long) Math.ceil(due / perNano);
+            }
+            due -= perNano * step;
+        }
+        return durationNanos;
+    }
+
+    private Endpoint[] weightedMix() {
+        List<Endpoint> mix = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            for (int i = 0; i < endpoint.weight; i++) {
+                mix.add(endpoint);
+            }
+        }
+        return mix.toArray(new Endpoint[0]);
+    }
+
+    private static final class Endpoint {
+        private final int weight;
+        private final Function<RestClient, Response> call;
+        private final EndpointRecorder recorder;
+
+        private Endpoint(String name, int weight, Function<RestClient, Response> call) {
+            this.weight = weight;
+            this.call = call;
+            this.recorder = new EndpointRecorder(name);
+        }
+    }
+}
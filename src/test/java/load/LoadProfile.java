@@ -0,0 +1,73 @@
+package load;
+
+import java.time.Duration;
+
+/**
+ * Target arrival rate of an open-model load run as a function of time.
+ * Profiles are composable, e.g. {@code ramp(1, 50, ofSeconds(30)).then(constant(50, ofMinutes(2)))}.
+ */
+public interface LoadProfile {
+
+    /**
+     * @param elapsedNanos offset from the start of the run
+     * @return target arrival rate in requests per second (0 means idle)
+     */
+    double rateAt(long elapsedNanos);
+
+    Duration duration();
+
+    static LoadProfile constant(double rps, Duration duration) {
+        return shape(duration, elapsed -> rps);
+    }
+
+    /**
+     * Linear ramp from {@code fromRps} to {@code toRps} over the given duration.
+     */
+    static LoadProfile ramp(double fromRps, double toRps, Duration duration) {
+        double total = duration.toNanos();
+        return shape(duration, elapsed -> fromRps + (toRps - fromRps) * (elapsed / total));
+    }
+
+    /**
+     * Staircase starting at {@code startRps} and adding {@code stepRps} every {@code stepDuration}, {@code steps} times.
+     */
+    static LoadProfile step(double startRps, double stepRps, Duration stepDuration, int steps) {
+        long stepNanos = stepDuration.toNanos();
+        return shape(stepDuration.multipliedBy(steps), elapsed -> startRps + stepRps * (elapsed / stepNanos));
+    }
+
+    /**
+     * Constant {@code baseRps} with a burst of {@code spikeRps} during {@code [spikeAt, spikeAt + spikeLength)}.
+     */
+    static LoadProfile spike(double baseRps, double spikeRps, Duration duration, Duration spikeAt, Duration spikeLength) {
+        long from = spikeAt.toNanos();
+        long to = from + spikeLength.toNanos();
+        return shape(duration, elapsed -> elapsed >= from && elapsed < to ? spikeRps : baseRps);
+    }
+
+    default LoadProfile then(LoadProfile next) {
+        LoadProfile first = this;
+        long firstNanos = first.duration().toNanos();
+        return shape(first.duration().plus(next.duration()),
+                elapsed -> elapsed < firstNanos ? first.rateAt(elapsed) : next.rateAt(elapsed - firstNanos));
+    }
+
+    private static LoadProfile shape(Duration duration, Rate rate) {
+        return new LoadProfile() {
+            @Override
+            public double rateAt(long elapsedNanos) {
+                return Math.max(0, rate.at(elapsedNanos));
+            }
+
+            @Override
+            public Duration duration() {
+                return duration;
+            }
+        };
+    }
+
+    @FunctionalInterface
+    interface Rate {
+        double at(long elapsedNanos);
+    }
+}
@@ -0,0 +1,96 @@
+package load;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of a {@link LoadEngine} run: achieved throughput, error counts and latency percentiles per endpoint.
+ * Requests still running when the run stops waiting for them count as timed-out errors without a latency.
+ */
+public record LoadReport(Duration elapsed, List<EndpointStats> endpoints) {
+
+    static LoadReport of(Duration elapsed, List<EndpointRecorder> recorders) {
+        double seconds = elapsed.toNanos() / 1e9;
+        List<EndpointStats> stats = recorders.stream()
+                                             .map(recorder -> EndpointStats.of(recorder, seconds))
+                                             .toList();
+        return new LoadReport(elapsed, stats);
+    }
+
+    public EndpointStats endpoint(String name) {
+        return endpoints.stream()
+                        .filter(stats -> stats.name().equals(name))
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalArgumentException("No endpoint named " + name));
+    }
+
+    public long totalRequests() {
+        return endpoints.stream().mapToLong(EndpointStats::requests).sum();
+    }
+
+    public long totalErrors() {
+        return endpoints.stream().mapToLong(EndpointStats::errors).sum();
+    }
+
+    public long totalDropped() {
+        return endpoints.stream().mapToLong(EndpointStats::dropped).sum();
+    }
+
+    public long totalTimedOut() {
+        return endpoints.stream().mapToLong(EndpointStats::timedOut).sum();
+    }
+
+    public double throughput() {
+        return totalRequests() / (elapsed.toNanos() / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(String.format(
+                "%-24s %8s %7s %7s %8s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "dropped", "timedout", "req/s",
+                "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms"));
+        for (EndpointStats stats : endpoints) {
+            report.append(String.format("%-24s %8d %7d %7d %8d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    stats.name(), stats.requests(), stats.errors(), stats.dropped(), stats.timedOut(),
+                    stats.throughput(),
+                    stats.p50Millis(), stats.p90Millis(), stats.p95Millis(), stats.p99Millis(), stats.maxMillis()));
+        }
+        report.append(String.format(
+                "total: %d requests, %d errors (%d timed out), %d dropped, %.1f req/s over %.1f s",
+                totalRequests(), totalErrors(), totalTimedOut(), totalDropped(), throughput(),
+                elapsed.toNanos() / 1e9));
+        return report.toString();
+    }
+
+    public record EndpointStats(String name,
+                                long requests,
+                                long errors,
+                                long dropped,
+                                long timedOut,
+                                double throughput,
+                                double p50Millis,
+                                double p90Millis,
+                                double p95Millis,
+                                double p99Millis,
+                                double maxMillis) {
+
+        static EndpointStats of(EndpointRecorder recorder, double seconds) {
+            Histogram latencies = recorder.latencies();
+            return new EndpointStats(
+                    recorder.name(),
+                    recorder.requests(),
+                    recorder.errors(),
+                    recorder.droppedCount(),
+                    recorder.timedOutCount(),
+                    recorder.requests() / seconds,
+                    latencies.getValueAtPercentile(50) / 1_000.0,
+                    latencies.getValueAtPercentile(90) / 1_000.0,
+                    latencies.getValueAtPercentile(95) / 1_000.0,
+                    latencies.getValueAtPercentile(99) / 1_000.0,
+                    latencies.getMaxValue() / 1_000.0);
+        }
+    }
+}
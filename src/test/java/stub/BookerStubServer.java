@@ -0,0 +1,282 @@
+package stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import config.Constants;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded stand-in for the restful-booker API (/auth, /booking, /booking/{id}).
+ * Started on an ephemeral localhost port by {@link api.setup.BaseTest} when {@code -Dbooker.stub=true} is set,
+ * so the suite can run without network access and at localhost latency.
+ */
+public class BookerStubServer {
+
+    private static final String BASIC_AUTH = "Basic " + Base64.getEncoder().encodeToString(
+            (Constants.USERNAME + ":" + Constants.PASSWORD).getBytes(StandardCharsets.UTF_8));
+    private static BookerStubServer shared;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final BookingStore store = new BookingStore();
+    private final Set<String> tokens = ConcurrentHashMap.newKeySet();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public BookerStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "booker-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/auth", this::handleAuth);
+        server.createContext("/booking", this::handleBooking);
+    }
+
+    /**
+     * Returns the JVM-wide stub, starting it on first use.
+     */
+    public static synchronized BookerStubServer shared() {
+        if (shared == null) {
+            try {
+                shared = new BookerStubServer();
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to start booker stub server", e);
+            }
+            shared.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::stop));
+        }
+        return shared;
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public BookingStore store() {
+        return store;
+    }
+
+    private void handleAuth(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                sendText(exchange, 404, "Not Found");
+                return;
+            }
+            JsonNode body = readJson(exchange);
+            ObjectNode response = mapper.createObjectNode();
+            if (body != null
+                    && Constants.USERNAME.equals(body.path("username").asText(null))
+                    && Constants.PASSWORD.equals(body.path("password").asText(null))) {
+                String token = UUID.randomUUID().toString().replace("-", "").substring(0, 15);
+                tokens.add(token);
+                response.put("token", token);
+            } else {
+                response.put("reason", "Bad credentials");
+            }
+            sendJson(exchange, 200, response);
+        }
+    }
+
+    private void handleBooking(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            if (path.equals("/booking") || path.equals("/booking/")) {
+                switch (method) {
+                    case "GET" -> listBookings(exchange);
+                    case "POST" -> createBooking(exchange);
+                    default -> sendText(exchange, 404, "Not Found");
+                }
+                return;
+            }
+            Integer id = parseId(path.substring("/booking/".length()));
+            if (id == null) {
+                sendText(exchange, 404, "Not Found");
+                return;
+            }
+            switch (method) {
+                case "GET" -> getBooking(exchange, id);
+                case "PATCH" -> patchBooking(exchange, id);
+                case "DELETE" -> deleteBooking(exchange, id);
+                default -> sendText(exchange, 405, "Method Not Allowed");
+            }
+        } catch (RuntimeException e) {
+            sendText(exchange, 500, "Internal Server Error");
+        }
+    }
+
+    private void listBookings(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        LocalDate checkin;
+        LocalDate checkout;
+        try {
+            checkin = query.containsKey("checkin") ? LocalDate.parse(query.get("checkin")) : null;
+            checkout = query.containsKey("checkout") ? LocalDate.parse(query.get("checkout")) : null;
+        } catch (DateTimeParseException e) {
+            sendText(exchange, 400, "Bad Request");
+            return;
+        }
+        List<Integer> ids = store.find(query.get("firstname"), query.get("lastname"), checkin, checkout);
+        ArrayNode response = mapper.createArrayNode();
+        ids.forEach(id -> response.addObject().put("bookingid", id));
+        sendJson(exchange, 200, response);
+    }
+
+    private void createBooking(HttpExchange exchange) throws IOException {
+        int id;
+        try {
+            id = store.create(readJson(exchange));
+        } catch (IllegalArgumentException e) {
+            sendText(exchange, 400, "Bad Request");
+            return;
+        }
+        ObjectNode response = mapper.createObjectNode();
+        response.put("bookingid", id);
+        response.set("booking", store.get(id).toJson());
+        sendJson(exchange, 200, response);
+    }
+
+    private void getBooking(HttpExchange exchange, int id) throws IOException {
+        BookingStore.Booking booking = store.get(id);
+        if (booking == null) {
+            sendText(exchange, 404, "Not Found");
+            return;
+        }
+        sendJson(exchange, 200, booking.toJson());
+    }
+
+    private void patchBooking(HttpExchange exchange, int id) throws IOException {
+        if (!isAuthorised(exchange)) {
+            sendText(exchange, 403, "Forbidden");
+            return;
+        }
+        BookingStore.Booking booking;
+        try {
+            JsonNode patch = readJson(exchange);
+            if (patch == null || !patch.isObject()) {
+                sendText(exchange, 400, "Bad Request");
+                return;
+            }
+            booking = store.patch(id, patch);
+        } catch (IllegalArgumentException e) {
+            sendText(exchange, 400, "Bad Request");
+            return;
+        }
+        if (booking == null) {
+            sendText(exchange, 404, "Not Found");
+            return;
+        }
+        sendJson(exchange, 200, booking.toJson());
+    }
+
+    private void deleteBooking(HttpExchange exchange, int id) throws IOException {
+        if (!isAuthorised(exchange)) {
+            sendText(exchange, 403, "Forbidden");
+            return;
+        }
+        if (store.delete(id)) {
+            sendText(exchange, 201, "Created");
+        } else {
+            sendText(exchange, 404, "Not Found");
+        }
+    }
+
+    private boolean isAuthorised(HttpExchange exchange) {
+        if (BASIC_AUTH.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+            return true;
+        }
+        List<String> cookies = exchange.getRequestHeaders().get("Cookie");
+        if (cookies == null) {
+            return false;
+        }
+        for (String header : cookies) {
+            for (String cookie : header.split(";")) {
+                String[] pair = cookie.trim().split("=", 2);
+                if (pair.length == 2 && pair[0].equals("token") && tokens.contains(pair[1])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private JsonNode readJson(HttpExchange exchange) {
+        try (InputStream body = exchange.getRequestBody()) {
+            byte[] bytes = body.readAllBytes();
+            return bytes.length == 0 ? null : mapper.readTree(bytes);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed JSON body", e);
+        }
+    }
+
+    private static Integer parseId(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            String[] parts = pair.split("=", 2);
+            query.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                    parts.length > 1 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : "");
+        }
+        return query;
+    }
+
+    private void sendJson(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        send(exchange, status, mapper.writeValueAsBytes(body));
+    }
+
+    private static void sendText(HttpExchange exchange, int status, String body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        send(exchange, status, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrent in-memory booking store used by {@link BookerStubServer}.
+ * Every mutation is a single atomic map operation, so parallel PATCH/DELETE calls on the same
+ * booking behave like they would against a real database (e.g. exactly one DELETE wins).
+ */
+public class BookingStore {
+
+    private static final Set<String> FIELDS =
+            Set.of("firstname", "lastname", "totalprice", "depositpaid", "bookingdates", "additionalneeds");
+    private static final Set<String> DATE_FIELDS = Set.of("checkin", "checkout");
+
+    private final Map<Integer, Booking> bookings = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    public int create(JsonNode body) {
+        Booking booking = Booking.fromJson(body);
+        int id = nextId.getAndIncrement();
+        bookings.put(id, booking);
+        return id;
+    }
+
+    public Booking get(int id) {
+        return bookings.get(id);
+    }
+
+    /**
+     * Merges the given partial document into the booking.
+     *
+     * @return the updated booking, or null when the id does not exist
+     * @throws IllegalArgumentException when the patch contains unknown fields or wrong types
+     */
+    public Booking patch(int id, JsonNode patch) {
+        return bookings.computeIfPresent(id, (key, current) -> {
+            ObjectNode merged = current.toJson();
+            for (Map.Entry<String, JsonNode> field : patch.properties()) {
+                if (!FIELDS.contains(field.getKey())) {
+                    throw new IllegalArgumentException("Unknown field: " + field.getKey());
+                }
+                if (field.getKey().equals("bookingdates") && field.getValue().isObject()) {
+                    ((ObjectNode) merged.get("bookingdates")).setAll((ObjectNode) field.getValue());
+                } else {
+                    merged.set(field.getKey(), field.getValue());
+                }
+            }
+            return Booking.fromJson(merged);
+        });
+    }
+
+    public boolean delete(int id) {
+        return bookings.remove(id) != null;
+    }
+
+    /**
+     * Mirrors the restful-booker filters: exact match on names, checkin on or after the given date and
+     * checkout on or before the given date.
+     */
+    public List<Integer> find(String firstname, String lastname, LocalDate checkin, LocalDate checkout) {
+        List<Integer> ids = new ArrayList<>();
+        bookings.forEach((id, booking) -> {
+            if (firstname != null && !firstname.equals(booking.firstname())) return;
+            if (lastname != null && !lastname.equals(booking.lastname())) return;
+            if (checkin != null && booking.checkin().isBefore(checkin)) return;
+            if (checkout != null && booking.checkout().isAfter(checkout)) return;
+            ids.add(id);
+        });
+        return ids;
+    }
+
+    public int size() {
+        return bookings.size();
+    }
+
+    public record Booking(String firstname,
+                          String lastname,
+                          int totalprice,
+                          boolean depositpaid,
+                          LocalDate checkin,
+                          LocalDate checkout,
+                          String additionalneeds) {
+
+        static Booking fromJson(JsonNode node) {
+            if (node == null || !node.isObject()) {
+                throw new IllegalArgumentException("Booking must be a JSON object");
+            }
+            node.fieldNames().forEachRemaining(name -> {
+                if (!FIELDS.contains(name)) {
+                    throw new IllegalArgumentException("Unknown field: " + name);
+                }
+            });
+            JsonNode dates = node.get("bookingdates");
+            if (dates == null || !dates.isObject()) {
+                throw new IllegalArgumentException("bookingdates must be an object");
+            }
+            dates.fieldNames().forEachRemaining(name -> {
+                if (!DATE_FIELDS.contains(name)) {
+                    throw new IllegalArgumentException("Unknown field: bookingdates." + name);
+                }
+            });
+            JsonNode additionalNeeds = node.get("additionalneeds");
+            if (additionalNeeds != null && !additionalNeeds.isNull() && !additionalNeeds.isTextual()) {
+                throw new IllegalArgumentException("additionalneeds must be a string");
+            }
+            return new Booking(
+                    text(node, "firstname"),
+                    text(node, "lastname"),
+                    integer(node, "totalprice"),
+                    bool(node, "depositpaid"),
+                    date(dates, "checkin"),
+                    date(dates, "checkout"),
+                    additionalNeeds == null || additionalNeeds.isNull() ? null : additionalNeeds.textValue());
+        }
+
+        ObjectNode toJson() {
+            ObjectNode node = JsonNodeFactory.instance.objectNode();
+            node.put("firstname", firstname);
+            node.put("lastname", lastname);
+            node.put("totalprice", totalprice);
+            node.put("depositpaid", depositpaid);
+            ObjectNode dates = node.putObject("bookingdates");
+            dates.put("checkin", checkin.toString());
+            dates.put("checkout", checkout.toString());
+            if (additionalneeds != null) {
+                node.put("additionalneeds", additionalneeds);
+            }
+            return node;
+        }
+
+        private static String text(JsonNode node, String field) {
+            JsonNode value = node.get(field);
+            if (value == null || !value.isTextual()) {
+                throw new IllegalArgumentException(field + " must be a string");
+            }
+            return value.textValue();
+        }
+
+        private static int integer(JsonNode node, String field) {
+            JsonNode value = node.get(field);
+            if (value == null || !value.isInt()) {
+                throw new IllegalArgumentException(field + " must be an integer");
+            }
+            return value.intValue();
+        }
+
+        private static boolean bool(JsonNode node, String field) {
+            JsonNode value = node.get(field);
+            if (value == null || !value.isBoolean()) {
+                throw new IllegalArgumentException(field + " must be a boolean");
+            }
+            return value.booleanValue();
+        }
+
+        private static LocalDate date(JsonNode node, String field) {
+            JsonNode value = node.get(field);
+            if (value == null || !value.isTextual()) {
+                throw new IllegalArgumentException("bookingdates." + field + " must be a yyyy-MM-dd string");
+            }
+            try {
+                return LocalDate.parse(value.textValue());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("bookingdates." + field + " must be a yyyy-MM-dd string", e);
+            }
+        }
+    }
+}
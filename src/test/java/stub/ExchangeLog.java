@@ -0,0 +1,278 @@
+package stub;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Append-only on-disk log of HTTP exchanges, written by {@link RecordingProxyServer} and served by
+ * {@link ReplayServer}.
+ * <p>
+ * The data file is a sequence of records {@code [int keyLength][key][int status][int contentTypeLength]
+ * [contentType][int bodyLength][body]}, where the key is the method, path with query, credentials (token cookie or
+ * Authorization header) and request body. Next to it, {@code <file>.idx} holds one {@code [long keyHash][long offset]}
+ * pair per record, so a replay only reads the index up front and finds responses in the memory-mapped data file.
+ */
+public final class ExchangeLog {
+
+    private static final int INDEX_ENTRY_BYTES = 2 * Long.BYTES;
+
+    private ExchangeLog() {
+    }
+
+    /**
+     * Request key of an exchange received by one of the local servers.
+     */
+    static byte[] key(HttpExchange exchange, byte[] body) {
+        String uri = exchange.getRequestURI().getRawPath()
+                + (exchange.getRequestURI().getRawQuery() == null ? "" : "?" + exchange.getRequestURI().getRawQuery());
+        // 403 tests differ from their authorised counterparts only in the credentials they send
+        String credentials = String.join(";", headerValues(exchange, "Cookie")) + "|"
+                + String.join(";", headerValues(exchange, "Authorization"));
+        byte[] head = (exchange.getRequestMethod() + " " + uri + "\n" + credentials + "\n")
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] key = new byte[head.length + body.length];
+        System.arraycopy(head, 0, key, 0, head.length);
+        System.arraycopy(body, 0, key, head.length, body.length);
+        return key;
+    }
+
+    private static List<String> headerValues(HttpExchange exchange, String name) {
+        List<String> values = exchange.getRequestHeaders().get(name);
+        return values == null ? List.of() : values;
+    }
+
+    // 64-bit FNV-1a
+    static long hash(ByteBuffer key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = key.position(); i < key.limit(); i++) {
+            hash ^= key.get(i) & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    static Path indexFile(Path log) {
+        return log.resolveSibling(log.getFileName() + ".idx");
+    }
+
+    public record Response(int status, String contentType, ByteBuffer body) {
+    }
+
+    /**
+     * Appends exchanges; safe for concurrent use. Each record is written with a single write, and its index entry
+     * only after it, so a crash never leaves an index entry pointing at a partial record.
+     */
+    public static final class Writer implements Closeable {
+        private final FileChannel data;
+        private final FileChannel index;
+
+        public Writer(Path log) throws IOException {
+            if (log.getParent() != null) {
+                Files.createDirectories(log.getParent());
+            }
+            data = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            index = FileChannel.open(indexFile(log), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+
+        public void append(byte[] key, int status, String contentType, byte[] body) throws IOException {
+            byte[] type = contentType == null ? new byte[0] : contentType.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer record = ByteBuffer.allocate(4 * Integer.BYTES + key.length + type.length + body.length)
+                                          .putInt(key.length).put(key)
+                                          .putInt(status)
+                                          .putInt(type.length).put(type)
+                                          .putInt(body.length).put(body)
+                                          .flip();
+            ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES).putLong(hash(ByteBuffer.wrap(key)));
+            synchronized (this) {
+                entry.putLong(data.size()).flip();
+                while (record.hasRemaining()) {
+                    data.write(record);
+                }
+                while (entry.hasRemaining()) {
+                    index.write(entry);
+                }
+            }
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            try (data; index) {
+                data.force(false);
+                index.force(false);
+            }
+        }
+    }
+
+    /**
+     * Serves recorded responses from the memory-mapped log. Repeated identical requests get the recorded responses
+     * in their recorded order (e.g. 201 and then 404 for the same DELETE); once exhausted, the last one is repeated.
+     */
+    public static final class Reader implements Closeable {
+        private final FileChannel channel;
+        private final MappedByteBuffer data;
+        private final Map<Long, Sequence> sequences = new HashMap<>();
+        private final Sequence all = new Sequence(); // every record in the order it was appended
+
+        public Reader(Path log) throws IOException {
+            channel = FileChannel.open(log, StandardOpenOption.READ);
+            try {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new IOException("Exchange log larger than 2 GiB, record into several files: " + log);
+                }
+                data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                Path index = indexFile(log);
+                if (Files.exists(index) && Files.size(index) % INDEX_ENTRY_BYTES == 0) {
+                    readIndex(index);
+                } else {
+                    scanData();
+                }
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        public int size() {
+            return all.count;
+        }
+
+        /**
+         * @return the next recorded response for the request key, or {@code null} if it was never recorded
+         */
+        public Response next(byte[] key) {
+            ByteBuffer requested = ByteBuffer.wrap(key);
+            Sequence sequence = sequences.get(hash(requested));
+            if (sequence == null) {
+                return null;
+            }
+            int wanted = sequence.served.getAndIncrement();
+            int last = -1;
+            int matched = 0;
+            for (int i = 0; i < sequence.count; i++) {
+                int offset = sequence.offsets[i];
+                if (keyAt(offset).equals(requested)) {
+                    last = offset;
+                    if (matched++ == wanted) {
+                        break;
+                    }
+                }
+            }
+            return last < 0 ? null : responseAt(last);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private void readIndex(Path index) throws IOException {
+            try (FileChannel indexChannel = FileChannel.open(index, StandardOpenOption.READ)) {
+                MappedByteBuffer entries = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, indexChannel.size());
+                while (entries.remaining() >= INDEX_ENTRY_BYTES) {
+                    long hash = entries.getLong();
+                    long offset = entries.getLong();
+                    if (offset < data.limit()) {
+                        add(hash, (int) offset);
+                    }
+                }
+            }
+        }
+
+        // Used when the index is missing or was cut short
+        private void scanData() {
+            int offset = 0;
+            while (offset + Integer.BYTES <= data.limit()) {
+                int end = recordEnd(offset);
+                if (end < 0) {
+                    break; // partial last record
+                }
+                add(hash(keyAt(offset)), offset);
+                offset = end;
+            }
+        }
+
+        private int recordEnd(int offset) {
+            int position = offset;
+            for (int field = 0; field < 3; field++) {
+                if (position + Integer.BYTES > data.limit()) {
+                    return -1;
+                }
+                int length = data.getInt(position);
+                position += Integer.BYTES + length;
+                if (field == 0) {
+                    position += Integer.BYTES; // status
+                }
+            }
+            return position <= data.limit() ? position : -1;
+        }
+
+        private void add(long hash, int offset) {
+            sequences.computeIfAbsent(hash, key -> new Sequence()).add(offset);
+            all.add(offset);
+        }
+
+        /**
+         * Offsets of all records, in the order they were appended.
+         */
+        int[] offsets() {
+            return Arrays.copyOf(all.offsets, all.count);
+        }
+
+        String requestAt(int offset) {
+            return StandardCharsets.UTF_8.decode(keyAt(offset)).toString();
+        }
+
+        private ByteBuffer keyAt(int offset) {
+            return data.slice(offset + Integer.BYTES, data.getInt(offset));
+        }
+
+        Response responseAt(int offset) {
+            int position = offset + Integer.BYTES + data.getInt(offset);
+            int status = data.getInt(position);
+            position += Integer.BYTES;
+            int typeLength = data.getInt(position);
+            position += Integer.BYTES;
+            byte[] type = new byte[typeLength];
+            data.get(position, type);
+            position += typeLength;
+            int bodyLength = data.getInt(position);
+            return new Response(status, typeLength == 0 ? null : new String(type, StandardCharsets.UTF_8),
+                    data.slice(position + Integer.BYTES, bodyLength));
+        }
+    }
+
+    /**
+     * Offsets of the records recorded for one request, handed out in order; the last one repeats.
+     */
+    static final class Sequence {
+        private final AtomicInteger served = new AtomicInteger();
+        private int[] offsets = new int[1];
+        private int count;
+
+        void add(int offset) {
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            offsets[count++] = offset;
+        }
+
+        int next() {
+            return offsets[Math.min(served.getAndIncrement(), count - 1)];
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package stub;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Records a booking flow against the stub and replays it, checking that the replay answers every request as the
+ * recording did, also when the flow works on the other of two identical bookings than it did while recording.
+ */
+public class RecordReplayTests {
+
+    private static final String BOOKING = "{\"firstname\":\"Jim\",\"lastname\":\"Brown\",\"totalprice\":111,"
+            + "\"depositpaid\":true,\"bookingdates\":{\"checkin\":\"2025-01-01\",\"checkout\":\"2025-01-05\"},"
+            + "\"additionalneeds\":\"Breakfast\"}";
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern BOOKING_ID = Pattern.compile("\"bookingid\"\\s*:\\s*(\\d+)");
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private Path log;
+
+    @BeforeClass
+    public void createLog() throws IOException {
+        log = Files.createTempDirectory("exchanges").resolve("exchanges.log");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteLog() throws IOException {
+        Files.deleteIfExists(ExchangeLog.indexFile(log));
+        Files.deleteIfExists(log);
+        Files.deleteIfExists(log.getParent());
+    }
+
+    @Test
+    public void replay_answersAsRecorded_whicheverIdenticalBookingIsUsed() throws Exception {
+        BookerStubServer stub = new BookerStubServer();
+        stub.start();
+        List<String> recorded;
+        try {
+            RecordingProxyServer recorder = new RecordingProxyServer(stub.baseUrl(), log);
+            recorder.start();
+            try {
+                recorded = flow(recorder.baseUrl(), false);
+            } finally {
+                recorder.stop();
+            }
+        } finally {
+            stub.stop();
+        }
+
+        ReplayServer replay = new ReplayServer(log);
+        replay.start();
+        try {
+            assertThat(flow(replay.baseUrl(), true), is(recorded));
+            assertThat(send(replay.baseUrl(), "GET", "/booking/999999", null, null).statusCode(), is(502));
+        } finally {
+            replay.stop();
+        }
+    }
+
+    /**
+     * Creates two identical bookings, patches, deletes and reads one of them and reads the other, and returns the
+     * status and id-free body of every answer.
+     *
+     * @param swap work on the second booking instead of the first
+     */
+    private List<String> flow(String baseUrl, boolean swap) throws Exception {
+        List<String> answers = new ArrayList<>();
+        String token = find(TOKEN, send(baseUrl, "POST", "/auth",
+                "{\"username\":\"admin\",\"password\":\"password123\"}", null).body());
+        String first = find(BOOKING_ID, send(baseUrl, "POST", "/booking", BOOKING, null).body());
+        String second = find(BOOKING_ID, send(baseUrl, "POST", "/booking", BOOKING, null).body());
+        String used = swap ? second : first;
+        String other = swap ? first : second;
+
+        answers.add(answer(send(baseUrl, "PATCH", "/booking/" + used, "{\"firstname\":\"Maestro\"}", token)));
+        answers.add(answer(send(baseUrl, "GET", "/booking/" + used, null, null)));
+        answers.add(answer(send(baseUrl, "PATCH", "/booking/" + used, "{\"firstname\":\"Maestro\"}", null)));
+        answers.add(answer(send(baseUrl, "DELETE", "/booking/" + used, null, token)));
+        answers.add(answer(send(baseUrl, "DELETE", "/booking/" + used, null, token)));
+        answers.add(answer(send(baseUrl, "GET", "/booking/" + used, null, null)));
+        answers.add(answer(send(baseUrl, "GET", "/booking/" + other, null, null)));
+        return answers;
+    }
+
+    private HttpResponse<String> send(String baseUrl, String method, String path, String body, String token)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                                                 .header("Content-Type", "application/json")
+                                                 .method(method, body == null
+                                                         ? HttpRequest.BodyPublishers.noBody()
+                                                         : HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Cookie", "token=" + token);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String answer(HttpResponse<String> response) {
+        return response.statusCode() + " " + response.body();
+    }
+
+    private static String find(Pattern pattern, String body) {
+        Matcher matcher = pattern.matcher(body);
+        assertThat("No match for " + pattern + " in " + body, matcher.find(), is(true));
+        return matcher.group(1);
+    }
+}
@@ -0,0 +1,119 @@
+package stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local forwarding proxy that passes every request on to the real API and appends the exchange to an
+ * {@link ExchangeLog}. Started by {@link api.setup.BaseTest} when {@code -Dbooker.record=<file>} is set.
+ */
+public class RecordingProxyServer {
+
+    // Forwarded as sent; everything else (Host, Connection, Content-Length, ...) is set by the HTTP client
+    private static final List<String> FORWARDED_HEADERS = List.of("Content-Type", "Accept", "Cookie", "Authorization");
+    private static RecordingProxyServer shared;
+
+    private final String target;
+    private final ExchangeLog.Writer log;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "booker-recorder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final HttpClient httpClient = HttpClient.newBuilder().executor(executor).build();
+
+    public RecordingProxyServer(String target, Path log) throws IOException {
+        this.target = target;
+        this.log = new ExchangeLog.Writer(log);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", this::forward);
+    }
+
+    /**
+     * Returns the JVM-wide proxy, starting it on first use.
+     */
+    public static synchronized RecordingProxyServer shared(String target, Path log) {
+        if (shared == null) {
+            try {
+                shared = new RecordingProxyServer(target, log);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to start recording proxy for " + target, e);
+            }
+            shared.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::stop));
+        }
+        return shared;
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        try {
+            log.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to close exchange log", e);
+        }
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private void forward(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+            URI uri = URI.create(target + exchange.getRequestURI().toString());
+            HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                                                     .method(exchange.getRequestMethod(), body.length == 0
+                                                             ? HttpRequest.BodyPublishers.noBody()
+                                                             : HttpRequest.BodyPublishers.ofByteArray(body));
+            for (String header : FORWARDED_HEADERS) {
+                List<String> values = exchange.getRequestHeaders().get(header);
+                if (values != null) {
+                    values.forEach(value -> request.header(header, value));
+                }
+            }
+
+            HttpResponse<byte[]> response;
+            try {
+                response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while forwarding to " + uri, e);
+            }
+            String contentType = response.headers().firstValue("Content-Type").orElse(null);
+            log.append(ExchangeLog.key(exchange, body), response.statusCode(), contentType, response.body());
+
+            if (contentType != null) {
+                exchange.getResponseHeaders().set("Content-Type", contentType);
+            }
+            exchange.sendResponseHeaders(response.statusCode(), response.body().length == 0 ? -1 : response.body().length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response.body());
+            }
+        }
+    }
+}
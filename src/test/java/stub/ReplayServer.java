@@ -0,0 +1,194 @@
+package stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves the exchanges of an {@link ExchangeLog} recorded by {@link RecordingProxyServer}, matched on method, path,
+ * query, credentials and body. Started by {@link api.setup.BaseTest} when {@code -Dbooker.replay=<file>} is set.
+ * A request that was never recorded gets {@code 502} with the request line, so it cannot pass as a real API answer.
+ * <p>
+ * Bookings are created concurrently (booking pool, parallel tests), so which test works on which booking id
+ * differs between runs. Requests on {@code /booking/{id}} are therefore matched on the route template plus the
+ * booking's history instead of the literal id: the request that created it and every successful PATCH or DELETE
+ * since. A fresh booking patched with some body gets the recorded answer for any fresh booking of the same
+ * content patched with that body, and a second DELETE of a booking still gets the recorded 404.
+ */
+public class ReplayServer {
+
+    private static ReplayServer shared;
+
+    private static final Pattern BOOKING_PATH = Pattern.compile("(\\S+) /booking/(\\d+)(\\S*)\n");
+    private static final Pattern BOOKING_ID = Pattern.compile("\"bookingid\"\\s*:\\s*(\\d+)");
+
+    private final ExchangeLog.Reader log;
+    // Recorded requests on /booking/{id}, keyed by template request and the booking's history at that point
+    private final Map<String, ExchangeLog.Sequence> byHistory = new HashMap<>();
+    private final Map<Integer, History> histories = new ConcurrentHashMap<>();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "booker-replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReplayServer(Path log) throws IOException {
+        this.log = new ExchangeLog.Reader(log);
+        indexBookingHistories();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", this::replay);
+    }
+
+    /**
+     * Returns the JVM-wide replay server, starting it on first use.
+     */
+    public static synchronized ReplayServer shared(Path log) {
+        if (shared == null) {
+            try {
+                shared = new ReplayServer(log);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to open exchange log " + log, e);
+            }
+            shared.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::stop));
+        }
+        return shared;
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        try {
+            log.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to close exchange log", e);
+        }
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private void replay(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+            ExchangeLog.Response response = next(ExchangeLog.key(exchange, body));
+            if (response == null) {
+                byte[] message = ("No recorded exchange for " + exchange.getRequestMethod() + " "
+                        + exchange.getRequestURI()).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+                send(exchange, 502, ByteBuffer.wrap(message));
+                return;
+            }
+            if (response.contentType() != null) {
+                exchange.getResponseHeaders().set("Content-Type", response.contentType());
+            }
+            send(exchange, response.status(), response.body());
+        }
+    }
+
+    private ExchangeLog.Response next(byte[] key) {
+        String request = new String(key, StandardCharsets.UTF_8);
+        Matcher booking = BOOKING_PATH.matcher(request);
+        if (!booking.lookingAt()) {
+            ExchangeLog.Response response = log.next(key);
+            trackCreated(request, response, histories);
+            return response;
+        }
+        String template = template(booking, request);
+        History history = histories.computeIfAbsent(Integer.valueOf(booking.group(2)), id -> new History(null));
+        // One request per booking at a time, so racing DELETEs get 201 and 404 in the recorded order
+        synchronized (history) {
+            ExchangeLog.Sequence recorded = byHistory.get(template + history.state);
+            if (recorded == null) {
+                return null;
+            }
+            ExchangeLog.Response response = log.responseAt(recorded.next());
+            history.record(booking.group(1), template, response.status());
+            return response;
+        }
+    }
+
+    // Replays the recorded log in order to learn each booking's history at every request made on it
+    private void indexBookingHistories() {
+        Map<Integer, History> recorded = new HashMap<>();
+        for (int offset : log.offsets()) {
+            String request = log.requestAt(offset);
+            ExchangeLog.Response response = log.responseAt(offset);
+            Matcher booking = BOOKING_PATH.matcher(request);
+            if (booking.lookingAt()) {
+                String template = template(booking, request);
+                History history = recorded.computeIfAbsent(Integer.valueOf(booking.group(2)), id -> new History(null));
+                byHistory.computeIfAbsent(template + history.state, key -> new ExchangeLog.Sequence()).add(offset);
+                history.record(booking.group(1), template, response.status());
+            } else {
+                trackCreated(request, response, recorded);
+            }
+        }
+    }
+
+    private static void trackCreated(String request, ExchangeLog.Response response, Map<Integer, History> histories) {
+        if (response == null || response.status() != 200 || !request.startsWith("POST /booking\n")) {
+            return;
+        }
+        Matcher id = BOOKING_ID.matcher(StandardCharsets.UTF_8.decode(response.body().duplicate()));
+        if (id.find()) {
+            histories.put(Integer.valueOf(id.group(1)), new History(request));
+        }
+    }
+
+    private static String template(Matcher booking, String request) {
+        return booking.group(1) + " /booking/{id}" + booking.group(3) + "\n" + request.substring(booking.end());
+    }
+
+    private static final class History {
+        private String state;
+
+        private History(String createdBy) {
+            state = createdBy == null ? "#" : "#" + createdBy + "#";
+        }
+
+        private void record(String method, String template, int status) {
+            if (status / 100 == 2 && (method.equals("PATCH") || method.equals("PUT") || method.equals("DELETE"))) {
+                state = state + template + "#";
+            }
+        }
+    }
+
+    // The body is a slice of the mapped log, streamed out in small chunks rather than copied into one array
+    private static void send(HttpExchange exchange, int status, ByteBuffer body) throws IOException {
+        exchange.sendResponseHeaders(status, body.remaining() == 0 ? -1 : body.remaining());
+        try (OutputStream out = exchange.getResponseBody()) {
+            WritableByteChannel channel = Channels.newChannel(out);
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package suite;
+
+import config.AdaptiveParallelismConfig;
+import load.AdaptiveLimit;
+import org.testng.IAlterSuiteListener;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import org.testng.SkipException;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * Lets only as many test methods run at once as the API currently handles well, instead of a fixed
+ * {@code thread-count}. The suite's {@code thread-count} becomes the ceiling ({@code -Dsuite.threads.max} replaces
+ * it) and an {@link AdaptiveLimit}, fed with the latency of the requests tests send from their own thread by
+ * {@code utils.AdaptiveLimitFilter}, decides how many of those threads may start a test. Requests of the threads a
+ * test starts itself (contention races, load runs) queue behind each other by design and are not fed back. Off by
+ * default; registered in {@code testng.xml}, see {@link AdaptiveParallelismConfig} for the settings.
+ */
+public class AdaptiveParallelism implements IAlterSuiteListener, ISuiteListener, IInvokedMethodListener {
+
+    /**
+     * Result attribute with the nanoseconds a test waited for its turn, which is not part of its duration.
+     */
+    static final String WAITED_NANOS = AdaptiveParallelism.class.getName() + ".waitedNanos";
+
+    private static final ThreadLocal<AdaptiveLimit> HELD = new ThreadLocal<>();
+
+    private static volatile AdaptiveLimit current;
+
+    /**
+     * The limit the test running on this thread holds a permit of, or {@code null} on any other thread.
+     */
+    public static AdaptiveLimit heldByCurrentThread() {
+        return HELD.get();
+    }
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        AdaptiveParallelismConfig config = AdaptiveParallelismConfig.fromSystemProperties();
+        if (config.enabled() && config.max() > 0) {
+            suites.forEach(suite -> suite.setThreadCount(config.max()));
+        }
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        AdaptiveParallelismConfig config = AdaptiveParallelismConfig.fromSystemProperties();
+        XmlSuite xml = suite.getXmlSuite();
+        if (!config.enabled() || !xml.getParallel().isParallel()) {
+            return;
+        }
+        int max = xml.getThreadCount();
+        int min = Math.min(config.min(), max);
+        current = new AdaptiveLimit("Test parallelism", Math.max(min, Math.min(config.initial(), max)), min, max,
+                config.latencyTolerance(), config.backoff());
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        AdaptiveLimit limit = current;
+        if (limit != null) {
+            Reporter.log(limit.summary());
+            current = null;
+        }
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult result) {
+        AdaptiveLimit limit = current;
+        if (limit == null || !method.isTestMethod()) {
+            return;
+        }
+        try {
+            result.setAttribute(WAITED_NANOS, limit.acquire());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SkipException("Interrupted while waiting for a test slot");
+        }
+        HELD.set(limit);
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        AdaptiveLimit limit = current;
+        if (limit != null && result.getAttribute(WAITED_NANOS) != null) {
+            HELD.remove();
+            limit.release();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package suite;
+
+import config.ShardConfig;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures how long each test method and each class's {@code @BeforeClass}/{@code @AfterClass} fixtures take and,
+ * when the suite finishes, writes them to {@link ShardConfig#runFile()}. An unsharded run also folds them into the
+ * local history, which {@link ShardInterceptor} reads next time; the shards of a sharded run are folded together by
+ * {@link ShardMerge}. Registered in {@code testng.xml}.
+ */
+public class DurationRecorder implements IInvokedMethodListener, ISuiteListener {
+
+    private final Map<String, LongAdder> millis = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterInvocation(IInvokedMethod invokedMethod, ITestResult result) {
+        ITestNGMethod method = invokedMethod.getTestMethod();
+        String className = method.getRealClass().getName();
+        String test;
+        if (invokedMethod.isTestMethod()) {
+            test = TestDurations.methodKey(className, method.getMethodName());
+        } else if (method.isBeforeClassConfiguration() || method.isAfterClassConfiguration()) {
+            test = className;
+        } else {
+            return;
+        }
+        // Time spent waiting for AdaptiveParallelism to let the test start says nothing about the test
+        Object waitedNanos = result.getAttribute(AdaptiveParallelism.WAITED_NANOS);
+        long waitedMillis = waitedNanos == null ? 0 : TimeUnit.NANOSECONDS.toMillis((Long) waitedNanos);
+        millis.computeIfAbsent(test, key -> new LongAdder())
+              .add(Math.max(0, result.getEndMillis() - result.getStartMillis() - waitedMillis));
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (millis.isEmpty()) {
+            return;
+        }
+        ShardConfig config = ShardConfig.fromSystemProperties();
+        Map<String, Long> measured = new TreeMap<>();
+        millis.forEach((test, total) -> measured.put(test, total.sum()));
+        TestDurations run = new TestDurations(measured);
+        try {
+            run.write(config.runFile());
+            if (!config.sharded()) {
+                TestDurations.read(config.history()).update(run)
+                             .write(config.outputDir().resolve(ShardConfig.HISTORY_FILE));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write test durations to " + config.outputDir(), e);
+        }
+    }
+}
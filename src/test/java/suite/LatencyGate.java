@@ -0,0 +1,60 @@
+package suite;
+
+import config.LatencyGateConfig;
+import config.ShardConfig;
+import utils.LatencyBaseline;
+import utils.LatencyHistograms;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Build step that gates the latency of the run that just finished, bound after surefire in the pom. A failure in
+ * {@code @AfterSuite} is not counted by surefire, so the suite only writes its histograms
+ * ({@link LatencyGateConfig#histogramFileName}) and this step compares them with the committed baselines (see
+ * {@link LatencyBaseline#gate}), failing the build on a regression. Histograms are consumed, so a later build that
+ * runs no suite does not gate them again. Sharded runs are gated by {@link ShardMerge} once all shards are in.
+ */
+public final class LatencyGate {
+
+    private LatencyGate() {
+    }
+
+    public static void main(String... args) throws IOException {
+        if (ShardConfig.fromSystemProperties().sharded()) {
+            return;
+        }
+        LatencyGateConfig gate = LatencyGateConfig.fromSystemProperties();
+        if (!Files.isDirectory(gate.currentDir())) {
+            return;
+        }
+        List<Path> runs;
+        try (Stream<Path> files = Files.list(gate.currentDir())) {
+            runs = files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.endsWith(LatencyGateConfig.HISTOGRAM_EXTENSION)
+                        && !name.contains(LatencyGateConfig.SHARD_INFIX);
+            }).sorted().toList();
+        }
+        List<String> regressions = new ArrayList<>();
+        for (Path run : runs) {
+            String name = run.getFileName().toString();
+            String suite = name.substring(0, name.length() - LatencyGateConfig.HISTOGRAM_EXTENSION.length());
+            try {
+                System.out.println(LatencyBaseline.gate(LatencyGateConfig.fileName(suite),
+                        LatencyBaseline.of(LatencyHistograms.read(run)), gate));
+            } catch (AssertionError e) {
+                regressions.add(e.getMessage());
+            } finally {
+                Files.delete(run);
+            }
+        }
+        if (!regressions.isEmpty()) {
+            throw new AssertionError(String.join("\n", regressions));
+        }
+    }
+}
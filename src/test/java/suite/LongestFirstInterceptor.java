@@ -0,0 +1,95 @@
+package suite;
+
+import config.ShardConfig;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.Reporter;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Starts the slowest work first when a {@code <test>} runs in parallel, so a long method or fixture-heavy class does
+ * not start last and keep the suite waiting on one thread. Durations come from earlier runs ({@link TestDurations},
+ * recorded by {@link DurationRecorder}); work without history counts as the median method. Registered in
+ * {@code testng.xml} after {@link ShardInterceptor}; {@code -Dtest.longestFirst=false} keeps the XML order.
+ * <p>
+ * With {@code parallel="methods"} methods are ordered longest first. With {@code parallel="classes"} whole classes
+ * are, by their methods plus fixtures, and methods keep their order within a class, as {@code preserve-order} asks.
+ * Explicit priorities still come first, and sequential tests are left alone. TestNG itself holds back methods until
+ * what they depend on has run, so dependencies stay intact whatever the order.
+ */
+public class LongestFirstInterceptor implements IMethodInterceptor {
+
+    private static final long DEFAULT_MILLIS = 1000;
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        XmlTest test = context.getCurrentXmlTest();
+        if (!Boolean.parseBoolean(System.getProperty("test.longestFirst", "true"))
+                || !test.getParallel().isParallel() || methods.size() < 2) {
+            return methods;
+        }
+        TestDurations history = TestDurations.history(ShardConfig.fromSystemProperties());
+        if (history.isEmpty()) {
+            return methods;
+        }
+        long typical = history.typicalMethod(DEFAULT_MILLIS);
+        boolean byClass = test.getParallel() == XmlSuite.ParallelMode.CLASSES;
+
+        // Work units: single methods, or classes with their methods in the order given
+        Map<String, List<IMethodInstance>> units = new LinkedHashMap<>();
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod method = instance.getMethod();
+            String unit = byClass ? method.getRealClass().getName() : ShardInterceptor.key(method);
+            units.computeIfAbsent(unit, key -> new ArrayList<>()).add(instance);
+        }
+        Map<String, Long> estimates = new LinkedHashMap<>();
+        units.forEach((unit, members) -> {
+            long millis = byClass ? history.get(unit, 0) : 0;
+            for (IMethodInstance member : members) {
+                millis += history.get(ShardInterceptor.key(member.getMethod()), typical);
+            }
+            estimates.put(unit, millis);
+        });
+
+        List<String> order = new ArrayList<>(units.keySet());
+        order.sort(Comparator.comparingInt((String unit) -> priority(units.get(unit)))
+                             .thenComparing(Comparator.comparingLong(estimates::get).reversed()));
+        List<IMethodInstance> scheduled = new ArrayList<>(methods.size());
+        order.forEach(unit -> scheduled.addAll(units.get(unit)));
+
+        int threads = test.getThreadCount();
+        Reporter.log(String.format("%s: longest first on %d threads, estimated %.1f s instead of %.1f s in XML order",
+                test.getName(), threads, makespan(order, estimates, threads) / 1000.0,
+                makespan(new ArrayList<>(units.keySet()), estimates, threads) / 1000.0));
+        return scheduled;
+    }
+
+    private static int priority(List<IMethodInstance> members) {
+        return members.stream().mapToInt(member -> member.getMethod().getPriority()).min().orElse(0);
+    }
+
+    // Wall time when each unit, in this order, starts on the first thread to become free
+    static long makespan(List<String> order, Map<String, Long> estimates, int threads) {
+        PriorityQueue<Long> freeAt = new PriorityQueue<>();
+        for (int thread = 0; thread < threads; thread++) {
+            freeAt.add(0L);
+        }
+        long end = 0;
+        for (String unit : order) {
+            long finish = freeAt.poll() + estimates.get(unit);
+            freeAt.add(finish);
+            end = Math.max(end, finish);
+        }
+        return end;
+    }
+}
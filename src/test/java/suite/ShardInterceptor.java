@@ -0,0 +1,116 @@
+package suite;
+
+import config.ShardConfig;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.Reporter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps only the test methods of this JVM's shard ({@code -Dshard.index} of {@code -Dshard.count}) so the suite can
+ * be split over several JVMs or containers. Registered in {@code testng.xml}; does nothing when not sharded.
+ * <p>
+ * Methods are dealt out longest first, each to the shard that then has the least estimated work, using the
+ * durations of earlier runs ({@link TestDurations}). A shard pays for a class's fixtures the first time it gets one
+ * of its methods, so classes are only split when that evens the shards out. Methods without history count as the
+ * median recorded method. Every shard computes the same split from the same history file.
+ */
+public class ShardInterceptor implements IMethodInterceptor {
+
+    private static final String ASSIGNMENT = ShardInterceptor.class.getName() + ".assignment";
+    private static final long DEFAULT_MILLIS = 1000;
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        ShardConfig config = ShardConfig.fromSystemProperties();
+        if (!config.sharded()) {
+            return methods;
+        }
+        Map<String, Integer> assignment = assignment(context.getSuite(), config);
+        List<IMethodInstance> mine = new ArrayList<>();
+        for (IMethodInstance instance : methods) {
+            if (assignment.getOrDefault(key(instance.getMethod()), 0) == config.index()) {
+                mine.add(instance);
+            }
+        }
+        return mine;
+    }
+
+    // Computed once per suite from all its methods, so a test method lands on one shard whichever <test> it is in
+    @SuppressWarnings("unchecked")
+    private static Map<String, Integer> assignment(ISuite suite, ShardConfig config) {
+        synchronized (suite) {
+            Object cached = suite.getAttribute(ASSIGNMENT);
+            if (cached != null) {
+                return (Map<String, Integer>) cached;
+            }
+            TestDurations history = TestDurations.history(config);
+            Map<String, String> classOf = new HashMap<>();
+            for (ITestNGMethod method : suite.getAllMethods()) {
+                classOf.put(key(method), method.getRealClass().getName());
+            }
+            Map<String, Integer> assignment = split(classOf, history, config.count());
+            suite.setAttribute(ASSIGNMENT, assignment);
+            report(assignment, history, config);
+            return assignment;
+        }
+    }
+
+    /**
+     * Shard of every test method.
+     *
+     * @param classOf class name of every test method, keyed like {@link TestDurations#methodKey}
+     */
+    static Map<String, Integer> split(Map<String, String> classOf, TestDurations history, int shards) {
+        long typical = history.typicalMethod(DEFAULT_MILLIS);
+        List<String> longestFirst = new ArrayList<>(classOf.keySet());
+        longestFirst.sort(Comparator.comparingLong((String test) -> history.get(test, typical)).reversed()
+                                    .thenComparing(Comparator.naturalOrder()));
+
+        long[] load = new long[shards];
+        List<Set<String>> classes = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) {
+            classes.add(new HashSet<>());
+        }
+        Map<String, Integer> assignment = new LinkedHashMap<>();
+        for (String test : longestFirst) {
+            String className = classOf.get(test);
+            long duration = history.get(test, typical);
+            int best = 0;
+            long bestLoad = Long.MAX_VALUE;
+            for (int shard = 0; shard < shards; shard++) {
+                long fixtures = classes.get(shard).contains(className) ? 0 : history.get(className, 0);
+                if (load[shard] + fixtures + duration < bestLoad) {
+                    best = shard;
+                    bestLoad = load[shard] + fixtures + duration;
+                }
+            }
+            load[best] = bestLoad;
+            classes.get(best).add(className);
+            assignment.put(test, best);
+        }
+        return assignment;
+    }
+
+    static String key(ITestNGMethod method) {
+        return TestDurations.methodKey(method.getRealClass().getName(), method.getMethodName());
+    }
+
+    private static void report(Map<String, Integer> assignment, TestDurations history, ShardConfig config) {
+        long mine = assignment.values().stream().filter(shard -> shard == config.index()).count();
+        Reporter.log(String.format("Shard %d of %d: %d of %d test methods, split on %s", config.index() + 1,
+                config.count(), mine, assignment.size(), history.isEmpty() ? "method count (no duration history yet)"
+                        : "durations from " + config.history()));
+    }
+}
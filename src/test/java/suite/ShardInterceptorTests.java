@@ -0,0 +1,59 @@
+package suite;
+
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Checks how {@link ShardInterceptor#split} deals test methods out over shards for a given duration history.
+ */
+public class ShardInterceptorTests {
+
+    @Test
+    public void split_keepsAClassTogether_whenItsFixturesOutweighTheGain() {
+        TestDurations history = new TestDurations(Map.of(
+                "C", 1000L, "C#a", 100L, "C#b", 100L, "C#c", 100L,
+                "D#a", 250L));
+
+        Map<String, Integer> assignment = ShardInterceptor.split(
+                Map.of("C#a", "C", "C#b", "C", "C#c", "C", "D#a", "D"), history, 2);
+
+        // Charging C's fixtures again for every method would have moved C#b next to D#a
+        assertThat(assignment, is(Map.of("D#a", 0, "C#a", 1, "C#b", 1, "C#c", 1)));
+    }
+
+    @Test
+    public void split_spreadsAClass_whenItsFixturesAreCheap() {
+        TestDurations history = new TestDurations(Map.of(
+                "C", 10L, "C#a", 1000L, "C#b", 1000L, "C#c", 1000L, "C#d", 1000L));
+
+        Map<String, Integer> assignment = ShardInterceptor.split(
+                Map.of("C#a", "C", "C#b", "C", "C#c", "C", "C#d", "C"), history, 2);
+
+        assertThat(assignment, is(Map.of("C#a", 0, "C#b", 1, "C#c", 0, "C#d", 1)));
+    }
+
+    @Test
+    public void split_estimatesMethodsWithoutHistory_asTheMedianRecordedMethod() {
+        // The median ignores class fixtures: methods 100, 300 and 500 give 300
+        TestDurations history = new TestDurations(Map.of(
+                "A", 5000L, "A#a", 100L, "A#b", 300L, "A#c", 500L));
+
+        Map<String, Integer> assignment = ShardInterceptor.split(
+                Map.of("A#c", "A", "B#x", "B", "B#y", "B"), history, 2);
+
+        // At the 1 s default instead, B#x would have gone first and taken shard 0
+        assertThat(assignment, is(Map.of("A#c", 0, "B#x", 1, "B#y", 1)));
+    }
+
+    @Test
+    public void split_withoutHistory_dealsOutByMethodCount() {
+        Map<String, Integer> assignment = ShardInterceptor.split(
+                Map.of("A#a", "A", "A#b", "A", "B#a", "B", "B#b", "B", "B#c", "B"), TestDurations.empty(), 3);
+
+        assertThat(assignment, is(Map.of("A#a", 0, "A#b", 1, "B#a", 2, "B#b", 0, "B#c", 1)));
+    }
+}
@@ -0,0 +1,131 @@
+package suite;
+
+import config.LatencyGateConfig;
+import config.ShardConfig;
+import org.HdrHistogram.Histogram;
+import utils.LatencyBaseline;
+import utils.LatencyHistograms;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Merges the results of a sharded run into this project's {@code target}, as if the suite had run in one JVM.
+ * Expects one directory per shard under {@code shardsDir}, each holding that shard's {@code allure-results},
+ * {@code surefire-reports}, {@code durations} and {@code latency}:
+ * <ul>
+ *     <li>Allure result files are copied into {@code target/allure-results} (their names are unique per test)</li>
+ *     <li>surefire reports go to {@code target/surefire-reports/<shard>/}, since every shard names them alike</li>
+ *     <li>the shards' measured durations are folded into the history, written to {@code target/durations}</li>
+ *     <li>the shards' latency histograms are added up per suite and gated once, like an unsharded run would be
+ *     (see {@code utils.LatencyBaseline#gate}); a regression fails the merge after everything else is merged</li>
+ * </ul>
+ * Run with {@code mvn test -Pmerge-shards -Dshards.dir=<dir>}.
+ */
+public final class ShardMerge {
+
+    private ShardMerge() {
+    }
+
+    public static void main(String... args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: ShardMerge <shardsDir> <targetDir>");
+        }
+        ShardConfig config = ShardConfig.fromSystemProperties();
+        merge(Path.of(args[0]), Path.of(args[1]), TestDurations.read(config.history()),
+                LatencyGateConfig.fromSystemProperties()).forEach(System.out::println);
+    }
+
+    /**
+     * Merges the shards under {@code shardsDir} into {@code target}, folding their durations into {@code history},
+     * and returns what was merged and what the latency gate found.
+     *
+     * @throws AssertionError with the whole report when latency regressed, after everything else is merged
+     */
+    static List<String> merge(Path shardsDir, Path target, TestDurations history, LatencyGateConfig gate)
+            throws IOException {
+        List<Path> shards;
+        try (Stream<Path> entries = Files.list(shardsDir)) {
+            shards = entries.filter(Files::isDirectory).sorted().toList();
+        }
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("No shard directories in " + shardsDir);
+        }
+
+        TestDurations run = TestDurations.empty();
+        // Suite file name, e.g. booker-tests.tsv, to the shards' histograms added up per route
+        Map<String, Map<String, Histogram>> latencies = new TreeMap<>();
+        // A file names its shard; one left over in another shard's target from an earlier run is not added twice
+        Set<String> histogramFiles = new HashSet<>();
+        for (Path shard : shards) {
+            try (Stream<Path> files = Files.exists(shard.resolve("latency"))
+                    ? Files.list(shard.resolve("latency")) : Stream.empty()) {
+                for (Path file : files.toList()) {
+                    String name = file.getFileName().toString();
+                    int infix = name.indexOf(LatencyGateConfig.SHARD_INFIX);
+                    boolean histogram = infix > 0 && name.endsWith(LatencyGateConfig.HISTOGRAM_EXTENSION);
+                    if (histogram && histogramFiles.add(name)) {
+                        String suite = LatencyGateConfig.fileName(name.substring(0, infix));
+                        LatencyHistograms.addTo(latencies.computeIfAbsent(suite, key -> new TreeMap<>()),
+                                LatencyHistograms.read(file));
+                    }
+                }
+            }
+            copyTree(shard.resolve("allure-results"), target.resolve("allure-results"));
+            copyTree(shard.resolve("surefire-reports"),
+                    target.resolve("surefire-reports").resolve(shard.getFileName().toString()));
+            try (Stream<Path> files = Files.exists(shard.resolve("durations"))
+                    ? Files.list(shard.resolve("durations")) : Stream.empty()) {
+                List<Path> runs = files.filter(file -> file.getFileName().toString().startsWith("run-shard-"))
+                                       .toList();
+                for (Path file : runs) {
+                    run = run.combine(TestDurations.read(file));
+                }
+            }
+        }
+        Path merged = target.resolve("durations").resolve(ShardConfig.HISTORY_FILE);
+        history.update(run).write(merged);
+        List<String> report = new ArrayList<>();
+        report.add(String.format("Merged %d shards from %s; %d test durations folded into %s",
+                shards.size(), shardsDir, run.asMap().size(), merged));
+
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Histogram>> suite : latencies.entrySet()) {
+            try {
+                report.add(LatencyBaseline.gate(suite.getKey(), LatencyBaseline.of(suite.getValue()), gate));
+            } catch (AssertionError e) {
+                regressions.add(e.getMessage());
+            }
+        }
+        if (!regressions.isEmpty()) {
+            report.addAll(regressions);
+            throw new AssertionError(String.join("\n", report));
+        }
+        return report;
+    }
+
+    private static void copyTree(Path from, Path to) throws IOException {
+        if (!Files.isDirectory(from)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(from)) {
+            for (Path path : paths.toList()) {
+                Path destination = to.resolve(from.relativize(path).toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(destination);
+                } else {
+                    Files.copy(path, destination, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package suite;
+
+import config.LatencyGateConfig;
+import org.HdrHistogram.Histogram;
+import org.testng.annotations.Test;
+import utils.LatencyBaseline;
+import utils.LatencyHistograms;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Merges two hand-made shard directories with {@link ShardMerge#merge} and checks reports, durations and the
+ * latency gate of the result.
+ */
+public class ShardMergeTests {
+
+    private static final String ROUTE = "GET /booking/{id}";
+    private static final String HISTOGRAMS = LatencyGateConfig.shardFileName("Booker Tests", 0, 2);
+
+    @Test
+    public void merge_collectsReports_andFoldsDurationsIntoTheHistory() throws IOException {
+        Path dir = Files.createTempDirectory("shard-merge");
+        try {
+            Path shards = shards(dir, 1_000);
+
+            List<String> report = ShardMerge.merge(shards, dir.resolve("target"),
+                    new TestDurations(Map.of("C#a", 1000L)), gate(dir, true));
+
+            Path target = dir.resolve("target");
+            assertThat(Files.exists(target.resolve("allure-results/0-result.json")), is(true));
+            assertThat(Files.exists(target.resolve("allure-results/1-result.json")), is(true));
+            assertThat(Files.readString(target.resolve("surefire-reports/0/TEST-TestSuite.xml")), is("shard 0"));
+            assertThat(Files.readString(target.resolve("surefire-reports/1/TEST-TestSuite.xml")), is("shard 1"));
+            // C#a moves halfway to this run, the split class keeps its longest setup, C#b is new
+            assertThat(TestDurations.read(target.resolve("durations/history.tsv")).asMap(),
+                    is(Map.of("C", 300L, "C#a", 600L, "C#b", 400L)));
+            assertThat(report.get(0), startsWith("Merged 2 shards"));
+            assertThat(report.get(1), startsWith("No committed latency baseline"));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void merge_addsUpTheShardsLatency_once() throws IOException {
+        Path dir = Files.createTempDirectory("shard-merge");
+        try {
+            Path shards = shards(dir, 1_000);
+            // Left over in shard 1's target from an earlier run of shard 0: already counted
+            Files.copy(shards.resolve("0/latency").resolve(HISTOGRAMS),
+                    shards.resolve("1/latency").resolve(HISTOGRAMS));
+
+            ShardMerge.merge(shards, dir.resolve("target"), TestDurations.empty(), gate(dir, true));
+
+            LatencyBaseline merged = LatencyBaseline.read(dir.resolve("current")
+                                                             .resolve(LatencyGateConfig.fileName("Booker Tests")));
+            assertThat(merged.routes().get(ROUTE).count(), is(10L));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void merge_failsOnALatencyRegression_afterMerging() throws IOException {
+        Path dir = Files.createTempDirectory("shard-merge");
+        try {
+            LatencyBaseline.of(Map.of(ROUTE, histogram(1_000, 10)))
+                           .write(dir.resolve("baseline").resolve(LatencyGateConfig.fileName("Booker Tests")));
+            Path shards = shards(dir, 500_000);
+
+            AssertionError error = expectThrows(AssertionError.class, () ->
+                    ShardMerge.merge(shards, dir.resolve("target"), TestDurations.empty(), gate(dir, true)));
+
+            assertThat(error.getMessage(), containsString("Latency regressed"));
+            assertThat(Files.exists(dir.resolve("target/durations/history.tsv")), is(true));
+            // Recorded only, when the gate is off
+            assertThat(ShardMerge.merge(shards, dir.resolve("target"), TestDurations.empty(), gate(dir, false))
+                                 .get(1), startsWith("Latency regressed"));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    /**
+     * Two shards of one suite: each with an Allure result, a surefire report, its durations and 5 calls of
+     * {@link #ROUTE} taking {@code micros}.
+     */
+    private static Path shards(Path dir, long micros) throws IOException {
+        Path shards = dir.resolve("shards");
+        Map<Integer, String> durations = Map.of(
+                0, "C\t100\nC#a\t200\n",
+                1, "C\t300\nC#b\t400\n");
+        for (int index = 0; index < 2; index++) {
+            Path shard = Files.createDirectories(shards.resolve(String.valueOf(index)));
+            write(shard.resolve("allure-results").resolve(index + "-result.json"), "{}");
+            write(shard.resolve("surefire-reports/TEST-TestSuite.xml"), "shard " + index);
+            write(shard.resolve("durations").resolve("run-shard-" + index + "-of-2.tsv"), durations.get(index));
+            LatencyHistograms.write(Map.of(ROUTE, histogram(micros, 5)), shard.resolve("latency")
+                    .resolve(LatencyGateConfig.shardFileName("Booker Tests", index, 2)));
+        }
+        return shards;
+    }
+
+    private static LatencyGateConfig gate(Path dir, boolean enabled) {
+        return new LatencyGateConfig(enabled, dir.resolve("baseline"), dir.resolve("current"), 0.5, 0.75, 1.0, 50, 5);
+    }
+
+    private static Histogram histogram(long micros, int count) {
+        Histogram histogram = new Histogram(3);
+        histogram.recordValueWithCount(micros, count);
+        return histogram;
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package suite;
+
+import config.ShardConfig;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Milliseconds spent per test method ({@code class#method}, all invocations of a data-driven method together) and
+ * per test class ({@code class}, its {@code @BeforeClass}/{@code @AfterClass} fixtures), persisted as a small
+ * tab-separated file. A history folds runs in with an exponential moving average, so one slow run only moves the
+ * estimate halfway.
+ */
+public final class TestDurations {
+
+    private static final String HEADER = "# test\tmillis";
+    private static final double WEIGHT_OF_LATEST_RUN = 0.5;
+
+    private final Map<String, Long> millis;
+
+    public TestDurations(Map<String, Long> millis) {
+        this.millis = new TreeMap<>(millis);
+    }
+
+    public static TestDurations empty() {
+        return new TestDurations(Map.of());
+    }
+
+    /**
+     * Reads {@code file}, or returns an empty history when there is none yet.
+     */
+    public static TestDurations read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return empty();
+        }
+        Map<String, Long> millis = new TreeMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] columns = line.split("\t");
+            if (columns.length != 2) {
+                throw new IOException("Malformed test durations line in " + file + ": " + line);
+            }
+            millis.put(columns[0], Long.parseLong(columns[1]));
+        }
+        return new TestDurations(millis);
+    }
+
+    /**
+     * The history runs are split and ordered on, see {@link ShardConfig#history()}.
+     */
+    public static TestDurations history(ShardConfig config) {
+        try {
+            return read(config.history());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read test durations from " + config.history(), e);
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        millis.forEach((test, value) -> lines.add(test + "\t" + value));
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    public Map<String, Long> asMap() {
+        return Collections.unmodifiableMap(millis);
+    }
+
+    public boolean isEmpty() {
+        return millis.isEmpty();
+    }
+
+    /**
+     * Recorded duration of {@code test}, or {@code fallback} when it never ran.
+     */
+    public long get(String test, long fallback) {
+        return millis.getOrDefault(test, fallback);
+    }
+
+    /**
+     * Median of the recorded test method durations, the estimate for methods without history; {@code fallback}
+     * when nothing was recorded.
+     */
+    public long typicalMethod(long fallback) {
+        long[] values = millis.entrySet().stream()
+                              .filter(entry -> isMethod(entry.getKey()))
+                              .mapToLong(Map.Entry::getValue)
+                              .sorted()
+                              .toArray();
+        return values.length == 0 ? fallback : values[values.length / 2];
+    }
+
+    /**
+     * This history with {@code run} folded in; tests that did not run keep their previous duration.
+     */
+    public TestDurations update(TestDurations run) {
+        Map<String, Long> updated = new TreeMap<>(millis);
+        run.millis.forEach((test, latest) -> updated.merge(test, latest, (previous, current) ->
+                Math.round(previous + WEIGHT_OF_LATEST_RUN * (current - previous))));
+        return new TestDurations(updated);
+    }
+
+    /**
+     * Durations of disjoint runs taken together, e.g. the shards of one suite run. A class split across shards
+     * set its fixtures up in each of them; its longest setup is kept.
+     */
+    public TestDurations combine(TestDurations other) {
+        Map<String, Long> combined = new TreeMap<>(millis);
+        other.millis.forEach((test, value) -> combined.merge(test, value, Math::max));
+        return new TestDurations(combined);
+    }
+
+    static String methodKey(String className, String methodName) {
+        return className + "#" + methodName;
+    }
+
+    private static boolean isMethod(String test) {
+        return test.indexOf('#') >= 0;
+    }
+}
@@ -0,0 +1,44 @@
+package utils;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import load.AdaptiveLimit;
+
+import java.util.function.Supplier;
+
+/**
+ * Feeds the latency and outcome of every request made from a spec it is added to into an {@link AdaptiveLimit},
+ * under the same route names as {@link LatencyFilter}. Exceptions, 429 and 5xx count as failures. The limit is looked
+ * up per request, so nothing is fed back while the supplier returns {@code null}.
+ */
+public class AdaptiveLimitFilter implements Filter {
+
+    private final Supplier<AdaptiveLimit> limit;
+
+    public AdaptiveLimitFilter(Supplier<AdaptiveLimit> limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        AdaptiveLimit target = limit.get();
+        if (target == null) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Response response = ctx.next(requestSpec, responseSpec);
+            failed = response.statusCode() == 429 || response.statusCode() >= 500;
+            return response;
+        } finally {
+            target.onSample(requestSpec.getMethod() + " " + requestSpec.getUserDefinedPath(),
+                    System.nanoTime() - start, failed);
+        }
+    }
+}
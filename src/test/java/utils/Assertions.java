@@ -1,34 +1,122 @@
 package utils;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
-import java.util.Arrays;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-
-import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.is;
+import java.util.Map;
+import java.util.Objects;
 
 public class Assertions {
+
+    // One compiled comparator per class, built on first use and shared by all threads
+    private static final ClassValue<ClassComparator> COMPARATORS = new ClassValue<>() {
+        @Override
+        protected ClassComparator computeValue(Class<?> type) {
+            return new ClassComparator(type);
+        }
+    };
+
+    /**
+     * Asserts that every field of {@code updated} (including nested POJOs such as {@code BookingDates}) equals the
+     * same field of {@code original}, and reports all differing fields at once.
+     *
+     * @param fieldsToSkip field names (e.g. {@code firstname}) or nested paths (e.g. {@code bookingdates.checkin})
+     */
     public static void assertObjects(Object original, Object updated, String... fieldsToSkip) {
-        List<String> skipFields = Arrays.asList(fieldsToSkip);
-
-        for (Field field : original.getClass().getDeclaredFields()) {
-            field.setAccessible(true);
-            if (!skipFields.contains(field.getName())) {
-                try {
-                    Object originalValue = field.get(original);
-                    Object updatedValue = field.get(updated);
-
-                    assertThat(
-                            "Field '" + field.getName() + "' should remain unchanged",
-                            updatedValue,
-                            is(originalValue)
-                    );
-
-                } catch (IllegalAccessException e) {
-                    throw new RuntimeException("Failed to access field: " + field.getName(), e);
+        List<String> differences = differences(original, updated, fieldsToSkip);
+        if (!differences.isEmpty()) {
+            throw new AssertionError("Fields should remain unchanged:\n  " + String.join("\n  ", differences));
+        }
+    }
+
+    /**
+     * Compares all fields in a single pass and returns one message per differing field path.
+     */
+    public static List<String> differences(Object original, Object updated, String... fieldsToSkip) {
+        List<String> differences = new ArrayList<>();
+        compare("", original, updated, fieldsToSkip, differences);
+        return differences;
+    }
+
+    private static void compare(String prefix, Object original, Object updated, String[] fieldsToSkip,
+                                List<String> differences) {
+        ClassComparator originalFields = COMPARATORS.get(original.getClass());
+        ClassComparator updatedFields = updated.getClass() == original.getClass()
+                ? originalFields
+                : COMPARATORS.get(updated.getClass());
+
+        for (FieldAccessor field : originalFields.fields.values()) {
+            String path = prefix + field.name;
+            if (isSkipped(field.name, path, fieldsToSkip)) {
+                continue;
+            }
+            FieldAccessor updatedField = updatedFields.fields.get(field.name);
+            if (updatedField == null) {
+                differences.add("Field '" + path + "' is missing from " + updated.getClass().getSimpleName());
+                continue;
+            }
+            Object originalValue = field.get(original);
+            Object updatedValue = updatedField.get(updated);
+            if (field.nested && originalValue != null && updatedValue != null) {
+                compare(path + ".", originalValue, updatedValue, fieldsToSkip, differences);
+            } else if (!Objects.equals(originalValue, updatedValue)) {
+                differences.add("Field '" + path + "' should remain unchanged: expected <" + originalValue
+                        + "> but was <" + updatedValue + ">");
+            }
+        }
+    }
+
+    private static boolean isSkipped(String name, String path, String[] fieldsToSkip) {
+        for (String skip : fieldsToSkip) {
+            if (skip.equals(name) || skip.equals(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class ClassComparator {
+        private final Map<String, FieldAccessor> fields = new LinkedHashMap<>();
+
+        private ClassComparator(Class<?> type) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+                for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                    for (Field field : current.getDeclaredFields()) {
+                        if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()
+                                || fields.containsKey(field.getName())) {
+                            continue;
+                        }
+                        MethodHandle getter = MethodHandles.privateLookupIn(current, lookup)
+                                                           .unreflectGetter(field)
+                                                           .asType(MethodType.methodType(Object.class, Object.class));
+                        fields.put(field.getName(), new FieldAccessor(field.getName(), getter, isNested(field.getType())));
+                    }
                 }
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException("Failed to access fields of: " + type.getName(), e);
             }
         }
+
+        // Our own POJOs are compared field by field, JDK and value types with equals()
+        private static boolean isNested(Class<?> type) {
+            return !type.isPrimitive() && !type.isArray() && !type.isEnum()
+                    && !type.getName().startsWith("java.");
+        }
     }
 
+    private record FieldAccessor(String name, MethodHandle getter, boolean nested) {
+        Object get(Object target) {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (Throwable t) {
+                throw new RuntimeException("Failed to access field: " + name, t);
+            }
+        }
+    }
 }
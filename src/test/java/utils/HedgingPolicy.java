@@ -0,0 +1,210 @@
+package utils;
+
+import config.HedgingConfig;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.http.ConnectionClosedException;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.conn.ConnectTimeoutException;
+
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Tail-latency and flakiness handling for idempotent calls, applied by {@link RestClient} to its GETs.
+ * A call slower than the configured percentile of its route gets a second, hedged request and the first answer
+ * wins; a connection error is retried after a jittered exponential backoff. How often each fired is counted per
+ * route: many hedges point at server tail latency, many retries at the network.
+ */
+public class HedgingPolicy {
+
+    private static final HedgingPolicy NONE = new HedgingPolicy(HedgingConfig.none());
+
+    private final HedgingConfig config;
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+    // A new thread per attempt inherits the caller's per-test latency and request log recorders
+    private final ExecutorService attempts = Executors.newThreadPerTaskExecutor(
+            Thread.ofPlatform().daemon().name("hedge-", 0).factory());
+
+    public HedgingPolicy(HedgingConfig config) {
+        this.config = config;
+    }
+
+    public static HedgingPolicy none() {
+        return NONE;
+    }
+
+    public boolean enabled() {
+        return config.hedge() || config.retries() > 0;
+    }
+
+    /**
+     * Runs {@code call}, which must be safe to repeat, with hedging and retries as configured.
+     *
+     * @param route e.g. {@code GET /booking/{id}}, whose latencies decide the hedge delay
+     */
+    public <T> T call(String route, Supplier<T> call) {
+        if (!enabled()) {
+            return call.get();
+        }
+        Route stats = routes.computeIfAbsent(route, key -> new Route());
+        stats.calls.increment();
+        for (int retry = 0; ; retry++) {
+            try {
+                return hedged(stats, call);
+            } catch (Throwable t) {
+                if (!isConnectionError(t)) {
+                    throw sneakyThrow(t);
+                }
+                if (retry >= config.retries()) {
+                    stats.failed.increment();
+                    throw sneakyThrow(t);
+                }
+                stats.retries.increment();
+                backOff(retry);
+            }
+        }
+    }
+
+    /**
+     * Plain-text table of calls, hedges and retries per route.
+     */
+    public String summary() {
+        StringBuilder summary = new StringBuilder(String.format(
+                "Hedging %s, retries %d%n%-28s %7s %7s %9s %7s %7s %11s%n",
+                config.hedge() ? "after p" + config.percentile() : "off", config.retries(),
+                "route", "calls", "hedged", "hedge won", "retries", "failed", "hedge ms"));
+        new TreeMap<>(routes).forEach((route, stats) -> summary.append(String.format(
+                "%-28s %7d %7d %9d %7d %7d %11.1f%n",
+                route, stats.calls.sum(), stats.hedges.sum(), stats.hedgeWins.sum(), stats.retries.sum(),
+                stats.failed.sum(), Math.max(0, stats.hedgeDelayNanos(config)) / 1e6)));
+        return summary.toString();
+    }
+
+    private <T> T hedged(Route stats, Supplier<T> call) throws Throwable {
+        long delay = config.hedge() ? stats.hedgeDelayNanos(config) : -1;
+        if (delay < 0) {
+            return stats.timed(call);
+        }
+        CompletableFuture<T> primary = CompletableFuture.supplyAsync(() -> stats.timed(call), attempts);
+        try {
+            return primary.get(delay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Slower than the route usually is: race a second request against it
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+        stats.hedges.increment();
+        CompletableFuture<T> hedge = CompletableFuture.supplyAsync(() -> stats.timed(call), attempts);
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(2);
+        primary.whenComplete(settle(winner, pending, null));
+        hedge.whenComplete(settle(winner, pending, stats.hedgeWins));
+        try {
+            return winner.join();
+        } catch (CompletionException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * The first answer wins, failed status assertions included; a connection error or read timeout only decides when
+     * the other attempt has failed too. The loser still runs to completion, so its connection goes back to the pool.
+     */
+    private static <T> BiConsumer<T, Throwable> settle(CompletableFuture<T> winner, AtomicInteger pending,
+                                                       LongAdder wins) {
+        return (value, error) -> {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            boolean last = pending.decrementAndGet() == 0;
+            boolean unanswered = isConnectionError(cause) || cause instanceof SocketTimeoutException;
+            if (cause != null && unanswered && !last) {
+                return;
+            }
+            boolean won = cause == null ? winner.complete(value) : winner.completeExceptionally(cause);
+            if (won && wins != null) {
+                wins.increment();
+            }
+        };
+    }
+
+    private void backOff(int retry) {
+        long bound = Math.min(config.retryMaxDelay().toNanos(),
+                config.retryBaseDelay().toNanos() << Math.min(retry, 30));
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while backing off before a retry", e);
+        }
+    }
+
+    /**
+     * Failures where the request most likely never reached the server, as opposed to errors in the answer itself.
+     * A read timeout is not one: the server may still be working on the request, and a retry would add to its load.
+     */
+    static boolean isConnectionError(Throwable t) {
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketException
+                    || cause instanceof ConnectTimeoutException // also a timed out lease from the connection pool
+                    || cause instanceof UnknownHostException
+                    || cause instanceof NoHttpResponseException
+                    || cause instanceof ConnectionClosedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // RestAssured throws checked IOExceptions undeclared; they are passed on unchanged
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> RuntimeException sneakyThrow(Throwable t) throws E {
+        throw (E) t;
+    }
+
+    private static final class Route {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder hedges = new LongAdder();
+        private final LongAdder hedgeWins = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        // Queries may see a sample more or less while attempts record, which is fine for a delay
+        private final Histogram latencies = new ConcurrentHistogram(3);
+
+        private <T> T timed(Supplier<T> call) {
+            long start = System.nanoTime();
+            T result = call.get();
+            latencies.recordValue(Math.max(1, (System.nanoTime() - start) / 1_000));
+            return result;
+        }
+
+        /**
+         * Nanoseconds to wait before hedging, or {@code -1} while there are too few samples.
+         */
+        private long hedgeDelayNanos(HedgingConfig config) {
+            if (latencies.getTotalCount() < config.minSamples()) {
+                return -1;
+            }
+            long percentile = TimeUnit.MICROSECONDS.toNanos(latencies.getValueAtPercentile(config.percentile()));
+            return Math.max(config.minDelay().toNanos(), percentile);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable set of ints backed by one sorted, duplicate-free {@code int[]} (4 bytes per id), for checking large
+ * listings such as GET /booking. Membership is a binary search; containment of m ids is a single merge pass.
+ */
+public final class IdSet {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final int[] ids;
+
+    private IdSet(int[] ids) {
+        this.ids = ids;
+    }
+
+    public static IdSet of(int... ids) {
+        return new IdSet(sortedDistinct(ids.clone(), ids.length));
+    }
+
+    /**
+     * Streams the JSON document and collects every integer value of {@code field}, at any depth, without building
+     * a tree or boxing the ids. The stream is closed.
+     */
+    public static IdSet parse(InputStream json, String field) throws IOException {
+        int[] ids = new int[1024];
+        int size = 0;
+        try (JsonParser parser = JSON.createParser(json)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.FIELD_NAME && field.equals(parser.currentName())
+                        && parser.nextToken() == JsonToken.VALUE_NUMBER_INT) {
+                    if (size == ids.length) {
+                        ids = Arrays.copyOf(ids, size * 2);
+                    }
+                    ids[size++] = parser.getIntValue();
+                }
+            }
+        }
+        return new IdSet(sortedDistinct(ids, size));
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean contains(int id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    public boolean containsAll(Collection<Integer> expected) {
+        return missing(expected).length == 0;
+    }
+
+    /**
+     * The ids of {@code expected} that are not in this set, sorted.
+     */
+    public int[] missing(Collection<Integer> expected) {
+        int[] wanted = sortedDistinct(expected.stream().mapToInt(Integer::intValue).toArray(), expected.size());
+        int[] missing = new int[wanted.length];
+        int count = 0;
+        int i = 0;
+        for (int id : wanted) {
+            while (i < ids.length && ids[i] < id) {
+                i++;
+            }
+            if (i == ids.length || ids[i] != id) {
+                missing[count++] = id;
+            }
+        }
+        return Arrays.copyOf(missing, count);
+    }
+
+    @Override
+    public String toString() {
+        if (ids.length <= 10) {
+            return Arrays.toString(ids);
+        }
+        return ids.length + " ids from " + ids[0] + " to " + ids[ids.length - 1];
+    }
+
+    private static int[] sortedDistinct(int[] values, int size) {
+        Arrays.sort(values, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || values[i] != values[distinct - 1]) {
+                values[distinct++] = values[i];
+            }
+        }
+        return distinct == values.length ? values : Arrays.copyOf(values, distinct);
+    }
+}
@@ -0,0 +1,41 @@
+package utils;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Hamcrest matchers for {@link IdSet}, the bounded-memory counterparts of {@code hasItem} and {@code hasItems}.
+ */
+public final class IdSetMatchers {
+
+    private IdSetMatchers() {
+    }
+
+    public static Matcher<IdSet> containsId(int id) {
+        return containsAllIds(List.of(id));
+    }
+
+    public static Matcher<IdSet> containsAllIds(Collection<Integer> ids) {
+        return new TypeSafeDiagnosingMatcher<>() {
+            @Override
+            protected boolean matchesSafely(IdSet actual, Description mismatch) {
+                int[] missing = actual.missing(ids);
+                if (missing.length > 0) {
+                    mismatch.appendText("ids " + Arrays.toString(missing) + " were missing from " + actual);
+                    return false;
+                }
+                return true;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a set of ids containing ").appendValue(ids);
+            }
+        };
+    }
+}
@@ -0,0 +1,100 @@
+package utils;
+
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static utils.IdSetMatchers.containsAllIds;
+import static utils.IdSetMatchers.containsId;
+
+/**
+ * Checks parsing, deduplication and the merge-based lookups of {@link IdSet}, and the messages of
+ * {@link IdSetMatchers}.
+ */
+public class IdSetTests {
+
+    @Test
+    public void parse_listing_keepsEachIdOnce() throws IOException {
+        IdSet ids = parse("[{\"bookingid\":3},{\"bookingid\":1},{\"bookingid\":3},{\"bookingid\":2}]");
+
+        assertThat(ids.size(), is(3));
+        assertThat(ids.toString(), is("[1, 2, 3]"));
+    }
+
+    @Test
+    public void parse_emptyListing_isEmpty() throws IOException {
+        IdSet ids = parse("[]");
+
+        assertThat(ids.size(), is(0));
+        assertThat(ids.contains(1), is(false));
+        assertThat(ids.missing(List.of(2, 1)), is(new int[]{1, 2}));
+    }
+
+    @Test
+    public void parse_findsNestedFields_andSkipsNonIntValues() throws IOException {
+        IdSet ids = parse("{\"bookingid\":\"7\",\"data\":{\"items\":[{\"bookingid\":5,\"booking\":{\"bookingid\":9}},"
+                + "{\"bookingid\":1.5},{\"bookingid\":null},{\"other\":4}]},\"bookingid\":2}");
+
+        assertThat(ids.toString(), is("[2, 5, 9]"));
+    }
+
+    @Test
+    public void parse_growsPastTheInitialCapacity() throws IOException {
+        StringJoiner listing = new StringJoiner(",", "[", "]");
+        for (int id = 3000; id >= 1; id--) {
+            listing.add("{\"bookingid\":" + id + "}");
+            listing.add("{\"bookingid\":" + id + "}");
+        }
+
+        IdSet ids = parse(listing.toString());
+
+        assertThat(ids.size(), is(3000));
+        assertThat(ids.contains(1), is(true));
+        assertThat(ids.contains(1025), is(true));
+        assertThat(ids.contains(3000), is(true));
+        assertThat(ids.contains(3001), is(false));
+        assertThat(ids.toString(), is("3000 ids from 1 to 3000"));
+    }
+
+    @Test
+    public void of_sortsAndDropsDuplicates() {
+        assertThat(IdSet.of(5, 1, 5, 3, 1).toString(), is("[1, 3, 5]"));
+        assertThat(IdSet.of().size(), is(0));
+    }
+
+    @Test
+    public void missing_isSortedAndDistinct_includingIdsPastEitherEnd() {
+        IdSet ids = IdSet.of(10, 20, 30);
+
+        assertThat(ids.missing(List.of(40, 20, 5, 40, 25, 10)), is(new int[]{5, 25, 40}));
+        assertThat(ids.missing(List.of()), is(new int[0]));
+        assertThat(ids.containsAll(List.of(30, 10, 10)), is(true));
+    }
+
+    @Test
+    public void matchers_reportTheMissingIds() {
+        IdSet ids = IdSet.of(1, 2, 3);
+        Matcher<IdSet> matcher = containsAllIds(List.of(3, 4, 5));
+
+        assertThat(ids, containsId(2));
+        assertThat(ids, containsAllIds(List.of(1, 3)));
+        assertThat(matcher.matches(ids), is(false));
+        StringDescription mismatch = new StringDescription();
+        matcher.describeMismatch(ids, mismatch);
+        assertThat(mismatch.toString(), is("ids [4, 5] were missing from [1, 2, 3]"));
+        assertThat(StringDescription.toString(matcher), containsString("<[3, 4, 5]>"));
+    }
+
+    private static IdSet parse(String json) throws IOException {
+        return IdSet.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), "bookingid");
+    }
+}
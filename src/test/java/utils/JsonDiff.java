@@ -0,0 +1,99 @@
+package utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Structural diff of JSON trees, so responses can be verified straight from the raw body without mapping them
+ * to POJOs first. Differences are reported by dotted path, e.g. {@code bookingdates.checkout}.
+ */
+public final class JsonDiff {
+
+    // Same module discovery as RestAssured's default Jackson mapper, so POJOs become the JSON the API sends
+    private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    private JsonDiff() {
+    }
+
+    public static JsonNode parse(byte[] json) {
+        try {
+            return MAPPER.readTree(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Response body is not valid JSON", e);
+        }
+    }
+
+    public static JsonNode toTree(Object value) {
+        return MAPPER.valueToTree(value);
+    }
+
+    /**
+     * Copy of {@code original} with every update applied. Keys are dotted paths ({@code firstname},
+     * {@code bookingdates.checkin}); missing intermediate objects are created.
+     */
+    public static JsonNode patch(JsonNode original, Map<String, ?> updates) {
+        ObjectNode patched = original.deepCopy();
+        updates.forEach((path, value) -> {
+            String[] segments = path.split("\\.");
+            ObjectNode parent = patched;
+            for (int i = 0; i < segments.length - 1; i++) {
+                JsonNode child = parent.get(segments[i]);
+                parent = child instanceof ObjectNode object ? object : parent.putObject(segments[i]);
+            }
+            parent.set(segments[segments.length - 1], MAPPER.valueToTree(value));
+        });
+        return patched;
+    }
+
+    /**
+     * @return one message per differing path; empty when both trees are equal
+     */
+    public static List<String> diff(JsonNode expected, JsonNode actual) {
+        List<String> differences = new ArrayList<>();
+        diff("", expected, actual, differences);
+        return differences;
+    }
+
+    private static void diff(String path, JsonNode expected, JsonNode actual, List<String> differences) {
+        if (expected.isObject() && actual.isObject()) {
+            for (Map.Entry<String, JsonNode> field : expected.properties()) {
+                String fieldPath = path.isEmpty() ? field.getKey() : path + "." + field.getKey();
+                JsonNode actualValue = actual.get(field.getKey());
+                if (actualValue == null) {
+                    if (field.getValue().isNull()) {
+                        continue; // absent and null are equivalent
+                    }
+                    differences.add(fieldPath + ": missing, expected <" + field.getValue() + ">");
+                } else {
+                    diff(fieldPath, field.getValue(), actualValue, differences);
+                }
+            }
+            actual.fieldNames().forEachRemaining(name -> {
+                if (!expected.has(name) && !actual.get(name).isNull()) {
+                    String fieldPath = path.isEmpty() ? name : path + "." + name;
+                    differences.add(fieldPath + ": unexpected field <" + actual.get(name) + ">");
+                }
+            });
+        } else if (expected.isArray() && actual.isArray()) {
+            if (expected.size() != actual.size()) {
+                differences.add(path + ": expected " + expected.size() + " elements but was " + actual.size());
+            }
+            for (int i = 0; i < Math.min(expected.size(), actual.size()); i++) {
+                diff(path + "[" + i + "]", expected.get(i), actual.get(i), differences);
+            }
+        } else if (expected.isNumber() && actual.isNumber()) {
+            if (expected.decimalValue().compareTo(actual.decimalValue()) != 0) {
+                differences.add(path + ": expected <" + expected + "> but was <" + actual + ">");
+            }
+        } else if (!expected.equals(actual)) {
+            differences.add(path + ": expected <" + expected + "> but was <" + actual + ">");
+        }
+    }
+}
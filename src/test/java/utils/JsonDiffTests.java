@@ -0,0 +1,107 @@
+package utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Checks the paths and messages {@link JsonDiff#diff} reports and how {@link JsonDiff#patch} applies dotted updates.
+ */
+public class JsonDiffTests {
+
+    private static final String BOOKING = "{\"firstname\":\"Jim\",\"totalprice\":111,\"depositpaid\":true,"
+            + "\"bookingdates\":{\"checkin\":\"2025-01-01\",\"checkout\":\"2025-01-05\"}}";
+
+    @Test
+    public void diff_equalTrees_haveNoDifferences() {
+        assertThat(JsonDiff.diff(json(BOOKING), json(BOOKING)), is(empty()));
+        assertThat(JsonDiff.diff(json("{\"totalprice\":100}"), json("{\"totalprice\":100.0}")), is(empty()));
+    }
+
+    @Test
+    public void diff_reportsNestedDifferences_byDottedPath() {
+        JsonNode actual = json(BOOKING.replace("2025-01-05", "2025-01-06"));
+
+        assertThat(JsonDiff.diff(json(BOOKING), actual),
+                contains("bookingdates.checkout: expected <\"2025-01-05\"> but was <\"2025-01-06\">"));
+    }
+
+    @Test
+    public void diff_treatsAbsentAndNullAlike() {
+        assertThat(JsonDiff.diff(json("{\"a\":1,\"notes\":null}"), json("{\"a\":1}")), is(empty()));
+        assertThat(JsonDiff.diff(json("{\"a\":1}"), json("{\"a\":1,\"notes\":null}")), is(empty()));
+        assertThat(JsonDiff.diff(json("{\"notes\":null}"), json("{\"notes\":\"late\"}")),
+                contains("notes: expected <null> but was <\"late\">"));
+    }
+
+    @Test
+    public void diff_reportsMissingAndUnexpectedFields() {
+        assertThat(JsonDiff.diff(json("{\"a\":{\"b\":1,\"c\":2}}"), json("{\"a\":{\"b\":1,\"d\":3}}")),
+                containsInAnyOrder("a.c: missing, expected <2>", "a.d: unexpected field <3>"));
+    }
+
+    @Test
+    public void diff_reportsTypeChanges() {
+        assertThat(JsonDiff.diff(json("{\"totalprice\":111}"), json("{\"totalprice\":\"111\"}")),
+                contains("totalprice: expected <111> but was <\"111\">"));
+        assertThat(JsonDiff.diff(json("{\"bookingdates\":{\"checkin\":\"2025-01-01\"}}"),
+                        json("{\"bookingdates\":\"2025-01-01\"}")),
+                contains("bookingdates: expected <{\"checkin\":\"2025-01-01\"}> but was <\"2025-01-01\">"));
+    }
+
+    @Test
+    public void diff_comparesArraysElementByElement() {
+        assertThat(JsonDiff.diff(json("{\"ids\":[1,2,3]}"), json("{\"ids\":[1,5]}")),
+                contains("ids: expected 3 elements but was 2", "ids[1]: expected <2> but was <5>"));
+    }
+
+    @Test
+    public void patch_appliesDottedPaths_withoutTouchingTheOriginal() {
+        JsonNode original = json(BOOKING);
+
+        JsonNode patched = JsonDiff.patch(original,
+                Map.of("firstname", "Maestro", "bookingdates.checkout", "2025-02-01"));
+
+        assertThat(JsonDiff.diff(original, patched), containsInAnyOrder(
+                "firstname: expected <\"Jim\"> but was <\"Maestro\">",
+                "bookingdates.checkout: expected <\"2025-01-05\"> but was <\"2025-02-01\">"));
+        assertThat(JsonDiff.diff(json(BOOKING), original), is(empty()));
+    }
+
+    @Test
+    public void patch_createsMissingObjects_andReplacesValuesInTheirWay() {
+        JsonNode patched = JsonDiff.patch(json("{\"firstname\":\"Jim\"}"),
+                Map.of("extras.breakfast.hot", true, "firstname.given", "Jim"));
+
+        JsonNode expected = json("{\"extras\":{\"breakfast\":{\"hot\":true}},\"firstname\":{\"given\":\"Jim\"}}");
+        assertThat(JsonDiff.diff(expected, patched), is(empty()));
+    }
+
+    @Test
+    public void patch_setsNullsAndStructuredValues() {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("firstname", null);
+        updates.put("bookingdates", Map.of("checkin", "2025-03-01"));
+        updates.put("tags", List.of("vip"));
+
+        JsonNode patched = JsonDiff.patch(json(BOOKING), updates);
+
+        assertThat(patched.get("firstname").isNull(), is(true));
+        assertThat(JsonDiff.diff(json("{\"checkin\":\"2025-03-01\"}"), patched.get("bookingdates")), is(empty()));
+        assertThat(JsonDiff.diff(json("[\"vip\"]"), patched.get("tags")), is(empty()));
+    }
+
+    private static JsonNode json(String json) {
+        return JsonDiff.parse(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
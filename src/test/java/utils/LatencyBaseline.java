@@ -0,0 +1,134 @@
+package utils;
+
+import config.LatencyGateConfig;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * p50/p95/p99 per route persisted as a small tab-separated file (one line per route, values in microseconds),
+ * so runs can be compared with each other and a known-good run can be committed as the baseline.
+ */
+public final class LatencyBaseline {
+
+    private static final String HEADER = "# route\tcount\tp50_us\tp95_us\tp99_us";
+
+    private final Map<String, Percentiles> routes;
+
+    private LatencyBaseline(Map<String, Percentiles> routes) {
+        this.routes = routes;
+    }
+
+    public static LatencyBaseline of(LatencyRecorder recorder) {
+        return of(recorder.snapshot());
+    }
+
+    public static LatencyBaseline of(Map<String, Histogram> histograms) {
+        Map<String, Percentiles> routes = new TreeMap<>();
+        histograms.forEach((route, histogram) -> routes.put(route, Percentiles.of(histogram)));
+        return new LatencyBaseline(routes);
+    }
+
+    public static LatencyBaseline read(Path file) throws IOException {
+        Map<String, Percentiles> routes = new TreeMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] columns = line.split("\t");
+            if (columns.length != 5) {
+                throw new IOException("Malformed latency baseline line in " + file + ": " + line);
+            }
+            routes.put(columns[0], new Percentiles(Long.parseLong(columns[1]), Long.parseLong(columns[2]),
+                    Long.parseLong(columns[3]), Long.parseLong(columns[4])));
+        }
+        return new LatencyBaseline(routes);
+    }
+
+    public void write(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        routes.forEach((route, p) -> lines.add(route + "\t" + p.count + "\t" + p.p50 + "\t" + p.p95 + "\t" + p.p99));
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes {@code run} as {@code fileName} into the gate's current directory and fails when a route got
+     * significantly slower than the committed baseline of that name. A suite without a committed baseline is only
+     * recorded: an earlier local run is a single noisy sample, not a reference.
+     *
+     * @return what the gate found, for the build step to report
+     */
+    public static String gate(String fileName, LatencyBaseline run, LatencyGateConfig gate) throws IOException {
+        Path committed = gate.baselineDir().resolve(fileName);
+        Path current = gate.currentDir().resolve(fileName);
+        run.write(current);
+        if (!Files.exists(committed)) {
+            return "No committed latency baseline " + committed + ", recorded " + current
+                    + "; copy a representative run there to gate on it";
+        }
+        List<String> regressions = run.regressionsAgainst(read(committed), gate);
+        if (regressions.isEmpty()) {
+            return "Latency within tolerance of " + committed;
+        }
+        String message = "Latency regressed against " + committed + ":\n  " + String.join("\n  ", regressions);
+        if (gate.enabled()) {
+            throw new AssertionError(message);
+        }
+        return message;
+    }
+
+    public Map<String, Percentiles> routes() {
+        return routes;
+    }
+
+    /**
+     * Routes of this run that got significantly slower than {@code baseline}; empty when within tolerance.
+     * Routes missing from either run, or with too few calls, are not compared.
+     */
+    public List<String> regressionsAgainst(LatencyBaseline baseline, LatencyGateConfig config) {
+        List<String> regressions = new ArrayList<>();
+        routes.forEach((route, current) -> {
+            Percentiles previous = baseline.routes.get(route);
+            if (previous == null || previous.count < config.minSamples() || current.count < config.minSamples()) {
+                return;
+            }
+            check(route, "p50", previous.p50, current.p50, config.p50Tolerance(), config, regressions);
+            check(route, "p95", previous.p95, current.p95, config.p95Tolerance(), config, regressions);
+            check(route, "p99", previous.p99, current.p99, config.p99Tolerance(), config, regressions);
+        });
+        return regressions;
+    }
+
+    private static void check(String route, String percentile, long baselineMicros, long currentMicros,
+                              double tolerance, LatencyGateConfig config, List<String> regressions) {
+        double deltaMillis = (currentMicros - baselineMicros) / 1_000.0;
+        if (currentMicros > baselineMicros * (1 + tolerance) && deltaMillis >= config.minDeltaMillis()) {
+            regressions.add(String.format("%s %s: %.1f ms -> %.1f ms (+%.0f%%, tolerance %.0f%%)",
+                    route, percentile, baselineMicros / 1_000.0, currentMicros / 1_000.0,
+                    100.0 * (currentMicros - baselineMicros) / Math.max(1, baselineMicros), 100 * tolerance));
+        }
+    }
+
+    /**
+     * Latencies in microseconds.
+     */
+    public record Percentiles(long count, long p50, long p95, long p99) {
+        static Percentiles of(Histogram histogram) {
+            return new Percentiles(histogram.getTotalCount(),
+                    histogram.getValueAtPercentile(50),
+                    histogram.getValueAtPercentile(95),
+                    histogram.getValueAtPercentile(99));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package utils;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Times every request made from a spec it is added to and records it under {@code METHOD /route/{template}},
+ * so bookings created through {@code BookingFactory}, logins through {@code Auth} and all {@link RestClient}
+ * calls are measured the same way.
+ */
+public class LatencyFilter implements Filter {
+
+    private final LatencyRecorder recorder;
+
+    public LatencyFilter(LatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long start = System.nanoTime();
+        try {
+            return ctx.next(requestSpec, responseSpec);
+        } finally {
+            recorder.record(requestSpec.getMethod() + " " + requestSpec.getUserDefinedPath(), System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package utils;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.DataFormatException;
+
+/**
+ * Full per-route latency histograms persisted as a tab-separated file (route, compressed histogram in Base64), so
+ * the runs of several shards can be added up before percentiles are taken; percentiles themselves do not add up.
+ */
+public final class LatencyHistograms {
+
+    private static final String HEADER = "# route\thistogram";
+
+    private LatencyHistograms() {
+    }
+
+    public static void write(Map<String, Histogram> routes, Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        routes.forEach((route, histogram) -> {
+            ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+            int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+            lines.add(route + "\t" + Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+        });
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    public static Map<String, Histogram> read(Path file) throws IOException {
+        Map<String, Histogram> routes = new TreeMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] columns = line.split("\t");
+            if (columns.length != 2) {
+                throw new IOException("Malformed latency histogram line in " + file + ": " + line);
+            }
+            try {
+                routes.put(columns[0], Histogram.decodeFromCompressedByteBuffer(
+                        ByteBuffer.wrap(Base64.getDecoder().decode(columns[1])), 0));
+            } catch (DataFormatException | IllegalArgumentException e) {
+                throw new IOException("Malformed latency histogram of " + columns[0] + " in " + file, e);
+            }
+        }
+        return routes;
+    }
+
+    /**
+     * Adds every route of {@code more} into {@code total}.
+     */
+    public static void addTo(Map<String, Histogram> total, Map<String, Histogram> more) {
+        more.forEach((route, histogram) -> total.computeIfAbsent(route, key -> new Histogram(3)).add(histogram));
+    }
+}
@@ -0,0 +1,84 @@
+package utils;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-route latency histograms (microsecond resolution), keyed by method and route template such as
+ * {@code PATCH /booking/{id}}. Recording is wait-free (HdrHistogram {@link Recorder}), so it can stay on for
+ * load runs; readers drain the interval histograms into a cumulative one when a snapshot is taken.
+ */
+public class LatencyRecorder {
+
+    // Requests made while a test runs are also recorded for that test; virtual threads it starts inherit it
+    private static final InheritableThreadLocal<LatencyRecorder> CURRENT_TEST = new InheritableThreadLocal<>();
+
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+    public static LatencyRecorder beginTest() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        CURRENT_TEST.set(recorder);
+        return recorder;
+    }
+
+    public static LatencyRecorder endTest() {
+        LatencyRecorder recorder = CURRENT_TEST.get();
+        CURRENT_TEST.remove();
+        return recorder;
+    }
+
+    public void record(String route, long latencyNanos) {
+        long micros = Math.max(1, latencyNanos / 1_000);
+        routes.computeIfAbsent(route, key -> new Route()).recorder.recordValue(micros);
+        LatencyRecorder test = CURRENT_TEST.get();
+        if (test != null && test != this) {
+            test.record(route, latencyNanos);
+        }
+    }
+
+    /**
+     * Cumulative histogram per route, sorted by route.
+     */
+    public Map<String, Histogram> snapshot() {
+        Map<String, Histogram> snapshot = new TreeMap<>();
+        routes.forEach((route, histogram) -> snapshot.put(route, histogram.cumulative()));
+        return snapshot;
+    }
+
+    public boolean isEmpty() {
+        return routes.isEmpty();
+    }
+
+    /**
+     * Plain-text percentile table, one line per route.
+     */
+    public String summary() {
+        StringBuilder summary = new StringBuilder(String.format("%-28s %7s %9s %9s %9s %9s %9s%n",
+                "route", "count", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms"));
+        snapshot().forEach((route, histogram) -> summary.append(String.format(
+                "%-28s %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                route, histogram.getTotalCount(),
+                histogram.getValueAtPercentile(50) / 1_000.0,
+                histogram.getValueAtPercentile(90) / 1_000.0,
+                histogram.getValueAtPercentile(95) / 1_000.0,
+                histogram.getValueAtPercentile(99) / 1_000.0,
+                histogram.getMaxValue() / 1_000.0)));
+        return summary.toString();
+    }
+
+    private static final class Route {
+        private final Recorder recorder = new Recorder(3);
+        private final Histogram accumulated = new Histogram(3);
+        private Histogram interval;
+
+        private synchronized Histogram cumulative() {
+            interval = recorder.getIntervalHistogram(interval);
+            accumulated.add(interval);
+            return accumulated.copy();
+        }
+    }
+}
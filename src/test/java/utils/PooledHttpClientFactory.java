@@ -0,0 +1,195 @@
+package utils;
+
+import config.HttpPoolConfig;
+import io.restassured.config.HttpClientConfig;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.client.params.CookiePolicy;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Supplies RestAssured with one shared, pooled Apache HttpClient so connections (and their TLS sessions) are
+ * reused across requests and threads instead of opened per request.
+ * Records how long callers waited to lease a connection and how many connections were created versus reused.
+ * RestAssured only accepts the 4.x {@code AbstractHttpClient} API, hence the deprecated classes.
+ */
+@SuppressWarnings("deprecation")
+public class PooledHttpClientFactory implements HttpClientConfig.HttpClientFactory {
+
+    private final HttpPoolConfig config;
+    private final PoolingClientConnectionManager pool;
+    private final DefaultHttpClient httpClient;
+    private final ScheduledExecutorService evictor;
+
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder leaseWaitNanos = new LongAdder();
+    private final LongAccumulator maxLeaseWaitNanos = new LongAccumulator(Long::max, 0);
+
+    public PooledHttpClientFactory(HttpPoolConfig config) {
+        this.config = config;
+        this.pool = new PoolingClientConnectionManager(SchemeRegistryFactory.createSystemDefault());
+        pool.setMaxTotal(config.maxTotal());
+        pool.setDefaultMaxPerRoute(config.maxPerRoute());
+
+        HttpParams params = new BasicHttpParams();
+        HttpConnectionParams.setConnectionTimeout(params, (int) config.connectTimeout().toMillis());
+        HttpConnectionParams.setSoTimeout(params, (int) config.socketTimeout().toMillis());
+        HttpConnectionParams.setStaleCheckingEnabled(params, true);
+        // without it the lease falls back to the connect timeout
+        params.setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT, config.leaseTimeout().toMillis());
+        // tokens are always sent explicitly, never pick up cookies from another test's response
+        params.setParameter(ClientPNames.COOKIE_POLICY, CookiePolicy.IGNORE_COOKIES);
+
+        this.httpClient = new DefaultHttpClient(new InstrumentedConnectionManager(), params);
+        httpClient.setKeepAliveStrategy((response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? serverKeepAlive : config.keepAlive().toMillis();
+        });
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, config.idleTimeout().toMillis() / 2);
+        evictor.scheduleAtFixedRate(() -> {
+            pool.closeExpiredConnections();
+            pool.closeIdleConnections(config.idleTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * RestAssured config that reuses the pooled client for every request.
+     */
+    public HttpClientConfig httpClientConfig() {
+        return HttpClientConfig.httpClientConfig()
+                               .reuseHttpClientInstance()
+                               .httpClientFactory(this);
+    }
+
+    @Override
+    public HttpClient createHttpClient() {
+        return httpClient;
+    }
+
+    public HttpPoolConfig config() {
+        return config;
+    }
+
+    public PoolMetrics metrics() {
+        PoolStats stats = pool.getTotalStats();
+        return new PoolMetrics(leases.sum(), created.sum(), reused.sum(),
+                leaseWaitNanos.sum(), maxLeaseWaitNanos.get(),
+                stats.getLeased(), stats.getAvailable(), stats.getPending(), stats.getMax());
+    }
+
+    public void shutdown() {
+        evictor.shutdownNow();
+        pool.shutdown();
+    }
+
+    public record PoolMetrics(long leases,
+                              long created,
+                              long reused,
+                              long totalLeaseWaitNanos,
+                              long maxLeaseWaitNanos,
+                              int leased,
+                              int available,
+                              int pending,
+                              int max) {
+
+        public double averageLeaseWaitMillis() {
+            return leases == 0 ? 0 : totalLeaseWaitNanos / 1e6 / leases;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "HTTP pool: %d leases, %d connections created, %d reused, lease wait avg %.3f ms max %.3f ms, "
+                            + "leased=%d available=%d pending=%d max=%d",
+                    leases, created, reused, averageLeaseWaitMillis(), maxLeaseWaitNanos / 1e6,
+                    leased, available, pending, max);
+        }
+    }
+
+    /**
+     * Delegates to the pool and classifies every lease: an already open connection was reused, a closed one is
+     * about to be opened.
+     */
+    private final class InstrumentedConnectionManager implements ClientConnectionManager {
+
+        @Override
+        public SchemeRegistry getSchemeRegistry() {
+            return pool.getSchemeRegistry();
+        }
+
+        @Override
+        public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+            ClientConnectionRequest request = pool.requestConnection(route, state);
+            return new ClientConnectionRequest() {
+                @Override
+                public ManagedClientConnection getConnection(long timeout, TimeUnit unit)
+                        throws InterruptedException, ConnectionPoolTimeoutException {
+                    long start = System.nanoTime();
+                    ManagedClientConnection connection = request.getConnection(timeout, unit);
+                    long waited = System.nanoTime() - start;
+                    leases.increment();
+                    leaseWaitNanos.add(waited);
+                    maxLeaseWaitNanos.accumulate(waited);
+                    if (connection.isOpen()) {
+                        reused.increment();
+                    } else {
+                        created.increment();
+                    }
+                    return connection;
+                }
+
+                @Override
+                public void abortRequest() {
+                    request.abortRequest();
+                }
+            };
+        }
+
+        @Override
+        public void releaseConnection(ManagedClientConnection connection, long validDuration, TimeUnit unit) {
+            pool.releaseConnection(connection, validDuration, unit);
+        }
+
+        @Override
+        public void closeIdleConnections(long idletime, TimeUnit unit) {
+            pool.closeIdleConnections(idletime, unit);
+        }
+
+        @Override
+        public void closeExpiredConnections() {
+            pool.closeExpiredConnections();
+        }
+
+        @Override
+        public void shutdown() {
+            // the pool outlives individual RestAssured requests, see PooledHttpClientFactory#shutdown
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package utils;
+
+/**
+ * Thrown instead of sending a request that would have to wait longer than {@code rate.maxWaitMs} for its turn under
+ * the client-side budgets of {@link RateLimiter}.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
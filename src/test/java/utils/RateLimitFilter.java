@@ -0,0 +1,28 @@
+package utils;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Holds every request made from a spec it is added to until the {@link RateLimiter} gives it a slot, under the same
+ * route names as {@link LatencyFilter}. Added first, so the time spent waiting is not part of any measured latency.
+ */
+public class RateLimitFilter implements Filter {
+
+    private final RateLimiter limiter;
+
+    public RateLimitFilter(RateLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        limiter.acquire(requestSpec.getMethod() + " " + requestSpec.getUserDefinedPath());
+        return ctx.next(requestSpec, responseSpec);
+    }
+}
@@ -0,0 +1,174 @@
+package utils;
+
+import config.RateLimitConfig;
+import config.RateLimitConfig.Budget;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Client-side request budgets shared by every thread, so parallel tests and load runs together stay under what the
+ * API tolerates instead of provoking 429s. Each budget is a token bucket kept as a single theoretical arrival time
+ * (GCRA) updated with compare-and-set: a request either fits the bucket right away or is given the time its slot
+ * opens. A request passes the global budget first, then its route's one. Callers wait for their slot up to
+ * {@link RateLimitConfig#maxWait()}; a request that would wait longer is shed with a
+ * {@link RateLimitExceededException} rather than queued further.
+ */
+public class RateLimiter {
+
+    private static final long NO_SLOT = Long.MIN_VALUE;
+
+    private final RateLimitConfig config;
+    private final LongSupplier clock;
+    private final Bucket global;
+    private final Map<String, Bucket> endpoints = new LinkedHashMap<>();
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+    public RateLimiter(RateLimitConfig config) {
+        this(config, System::nanoTime);
+    }
+
+    /**
+     * @param clock source of {@link System#nanoTime()}-like readings the budgets are kept against
+     */
+    RateLimiter(RateLimitConfig config, LongSupplier clock) {
+        this.config = config;
+        this.clock = clock;
+        long now = clock.getAsLong();
+        this.global = config.global() == null ? null : new Bucket(config.global(), now);
+        config.endpoints().forEach((route, budget) -> endpoints.put(route, new Bucket(budget, now)));
+    }
+
+    public boolean enabled() {
+        return config.enabled();
+    }
+
+    /**
+     * Takes a slot for one request on {@code route} (e.g. {@code GET /booking/{id}}) and returns the nanoseconds
+     * until it may be sent, without waiting. A global slot stays spent when the route's budget then sheds the
+     * request, and counts from when it opens even if the route's budget holds the request longer.
+     *
+     * @throws RateLimitExceededException when the slot is further away than the configured maximum wait
+     */
+    public long reserve(String route) {
+        if (!enabled()) {
+            return 0;
+        }
+        Route metrics = routes.computeIfAbsent(route, key -> new Route());
+        long now = clock.getAsLong();
+        long maxWait = config.maxWait().toNanos();
+        // Global first: a request its route holds back must not push the shared bucket out for every other route
+        Bucket endpoint = endpoints.get(route);
+        long sendAt = now;
+        if (global != null) {
+            sendAt = global.reserve(sendAt, now + maxWait);
+        }
+        if (sendAt != NO_SLOT && endpoint != null) {
+            sendAt = endpoint.reserve(sendAt, now + maxWait);
+        }
+        if (sendAt == NO_SLOT) {
+            metrics.shed.increment();
+            throw new RateLimitExceededException("Shed " + route + ": no slot within "
+                    + config.maxWait().toMillis() + " ms under " + budgetsOf(route));
+        }
+        long wait = sendAt - now;
+        metrics.requests.increment();
+        if (wait > 0) {
+            metrics.delayed.increment();
+            metrics.waitNanos.add(wait);
+            metrics.maxWaitNanos.accumulate(wait);
+        }
+        return wait;
+    }
+
+    /**
+     * {@link #reserve(String) Reserves} a slot and parks the calling thread until it opens.
+     */
+    public void acquire(String route) {
+        long deadline = System.nanoTime() + reserve(route);
+        for (long left = deadline - System.nanoTime(); left > 0; left = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(this, left);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new RateLimitExceededException("Interrupted while waiting for a slot on " + route);
+            }
+        }
+    }
+
+    /**
+     * Plain-text table of requests, waits and sheds per route.
+     */
+    public String summary() {
+        StringBuilder summary = new StringBuilder(String.format(
+                "Rate limit %s, max wait %d ms%n%-28s %7s %7s %7s %9s %9s%n",
+                budgetsOf(null), config.maxWait().toMillis(), "route", "sent", "delayed", "shed", "avg ms", "max ms"));
+        new TreeMap<>(routes).forEach((route, metrics) -> {
+            long delayed = metrics.delayed.sum();
+            summary.append(String.format("%-28s %7d %7d %7d %9.1f %9.1f%n",
+                    route, metrics.requests.sum(), delayed, metrics.shed.sum(),
+                    delayed == 0 ? 0.0 : metrics.waitNanos.sum() / (double) delayed / 1e6,
+                    metrics.maxWaitNanos.get() / 1e6));
+        });
+        return summary.toString();
+    }
+
+    private String budgetsOf(String route) {
+        StringBuilder budgets = new StringBuilder();
+        if (global != null) {
+            budgets.append("global ").append(global.budget);
+        }
+        endpoints.forEach((key, bucket) -> {
+            if (route == null || route.equals(key)) {
+                budgets.append(budgets.isEmpty() ? "" : ", ").append(key).append(' ').append(bucket.budget);
+            }
+        });
+        return budgets.toString();
+    }
+
+    private static final class Bucket {
+        private final String budget;
+        private final long interval;
+        private final long tolerance;
+        private final AtomicLong theoreticalArrival;
+
+        private Bucket(Budget budget, long now) {
+            this.budget = budget.perSecond() + "/s burst " + budget.burst();
+            this.interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / budget.perSecond()));
+            this.tolerance = interval * (budget.burst() - 1);
+            this.theoreticalArrival = new AtomicLong(now);
+        }
+
+        /**
+         * Earliest time at or after {@code earliest} this bucket lets a request out, or {@link #NO_SLOT} without
+         * taking a slot when that is after {@code latest}.
+         */
+        private long reserve(long earliest, long latest) {
+            while (true) {
+                long arrival = theoreticalArrival.get();
+                long sendAt = Math.max(earliest, arrival - tolerance);
+                if (sendAt - latest > 0) {
+                    return NO_SLOT;
+                }
+                if (theoreticalArrival.compareAndSet(arrival, Math.max(arrival, sendAt) + interval)) {
+                    return sendAt;
+                }
+            }
+        }
+    }
+
+    private static final class Route {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder delayed = new LongAdder();
+        private final LongAdder shed = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+    }
+}
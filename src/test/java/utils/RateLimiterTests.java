@@ -0,0 +1,107 @@
+package utils;
+
+import config.RateLimitConfig;
+import config.RateLimitConfig.Budget;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.testng.Assert.assertThrows;
+
+/**
+ * Checks the GCRA budgets of {@link RateLimiter} against a clock the test moves by hand: 10 requests per second
+ * is a slot every 100 ms.
+ */
+public class RateLimiterTests {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final String GET = "GET /booking/{id}";
+    private static final String POST = "POST /booking";
+
+    @Test
+    public void reserve_burstGoesOutAtOnce_thenOneSlotPerInterval() {
+        AtomicLong clock = new AtomicLong();
+        RateLimiter limiter = limiter(clock, new Budget(10, 3), Map.of(), Duration.ofSeconds(1));
+
+        assertThat(limiter.reserve(GET), is(0L));
+        assertThat(limiter.reserve(GET), is(0L));
+        assertThat(limiter.reserve(GET), is(0L));
+        assertThat(limiter.reserve(GET), is(100 * MS));
+        assertThat(limiter.reserve(GET), is(200 * MS));
+    }
+
+    @Test
+    public void reserve_idleRefillsTheBurst_butNeverBeyondIt() {
+        AtomicLong clock = new AtomicLong();
+        RateLimiter limiter = limiter(clock, new Budget(10, 3), Map.of(), Duration.ofSeconds(1));
+        limiter.reserve(GET);
+
+        clock.addAndGet(10_000 * MS);
+
+        assertThat(limiter.reserve(GET), is(0L));
+        assertThat(limiter.reserve(GET), is(0L));
+        assertThat(limiter.reserve(GET), is(0L));
+        assertThat(limiter.reserve(GET), is(100 * MS));
+    }
+
+    @Test
+    public void reserve_shedsBeyondMaxWait_withoutTakingTheSlot() {
+        AtomicLong clock = new AtomicLong();
+        RateLimiter limiter = limiter(clock, new Budget(10, 3), Map.of(), Duration.ofMillis(150));
+        for (int i = 0; i < 3; i++) {
+            limiter.reserve(GET);
+        }
+        assertThat(limiter.reserve(GET), is(100 * MS));
+
+        assertThrows(RateLimitExceededException.class, () -> limiter.reserve(GET));
+        assertThrows(RateLimitExceededException.class, () -> limiter.reserve(GET));
+
+        clock.addAndGet(100 * MS);
+        assertThat(limiter.reserve(GET), is(100 * MS));
+    }
+
+    @Test
+    public void reserve_routeShed_keepsTheGlobalSlotSpent() {
+        AtomicLong clock = new AtomicLong();
+        RateLimiter limiter = limiter(clock, new Budget(10, 3), Map.of(POST, new Budget(1, 1)),
+                Duration.ofMillis(150));
+        assertThat(limiter.reserve(POST), is(0L));
+
+        assertThrows(RateLimitExceededException.class, () -> limiter.reserve(POST));
+
+        // Two global slots are gone, so only the first of these fits the burst
+        assertThat(limiter.reserve(GET), is(0L));
+        assertThat(limiter.reserve(GET), is(100 * MS));
+    }
+
+    @Test
+    public void reserve_routeBudget_waitsOnTopOfTheGlobalOne() {
+        AtomicLong clock = new AtomicLong();
+        RateLimiter limiter = limiter(clock, new Budget(10, 3), Map.of(POST, new Budget(5, 1)),
+                Duration.ofSeconds(1));
+
+        assertThat(limiter.reserve(POST), is(0L));
+        assertThat(limiter.reserve(POST), is(200 * MS));
+        assertThat(limiter.reserve(GET), is(0L));
+    }
+
+    @Test
+    public void reserve_withoutBudgets_neverWaits() {
+        RateLimiter limiter = new RateLimiter(new RateLimitConfig(null, Map.of(), Duration.ZERO), () -> 0L);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.reserve(GET), is(0L));
+        }
+    }
+
+    // Each test moves its own clock: the methods of this class run in parallel
+    private static RateLimiter limiter(AtomicLong clock, Budget global, Map<String, Budget> endpoints,
+                                       Duration maxWait) {
+        return new RateLimiter(new RateLimitConfig(global, endpoints, maxWait), clock::get);
+    }
+}
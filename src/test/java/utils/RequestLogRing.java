@@ -0,0 +1,171 @@
+package utils;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Last exchanges of a test, kept as compact binary records in fixed-size slots of an off-heap buffer.
+ * Recording only copies (truncated) bytes into the next slot, so its cost does not grow with load or body size;
+ * records are rendered to text only when a test fails.
+ * <p>
+ * Each test thread owns one ring, reused across its tests. Threads a test starts (contention races, load
+ * workers, async steps) inherit and write into the test's ring; requests outside any test (suite setup and cleanup,
+ * pool refills) share a single ring. Writers claim slots atomically, no lock is taken.
+ * Slot layout: {@code [long epochMillis][long durationNanos][int status][method][uri][request body][response body]},
+ * where each text field is {@code [int truncatedFrom][int storedLength][bytes]} and {@code truncatedFrom} is 0 when the
+ * value was stored completely.
+ */
+public class RequestLogRing {
+
+    public static final int SLOTS = Integer.getInteger("http.log.slots", 32);
+    public static final int SLOT_BYTES = Integer.getInteger("http.log.slotBytes", 4096);
+
+    private static final int MAX_URI_BYTES = 512;
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+                                                                   .withZone(ZoneId.systemDefault());
+
+    private static final ThreadLocal<RequestLogRing> OWN = ThreadLocal.withInitial(RequestLogRing::new);
+    private static final InheritableThreadLocal<RequestLogRing> CURRENT_TEST = new InheritableThreadLocal<>();
+    private static final RequestLogRing OUTSIDE_TESTS = new RequestLogRing();
+    private static final ThreadLocal<CharsetEncoder> ENCODER = ThreadLocal.withInitial(
+            () -> StandardCharsets.UTF_8.newEncoder()
+                                        .onMalformedInput(CodingErrorAction.REPLACE)
+                                        .onUnmappableCharacter(CodingErrorAction.REPLACE));
+
+    private final ByteBuffer slots = ByteBuffer.allocateDirect(SLOTS * SLOT_BYTES);
+    private final AtomicLong written = new AtomicLong();
+
+    /**
+     * Makes the calling thread's ring the current test's ring and forgets what it held.
+     */
+    public static RequestLogRing beginTest() {
+        RequestLogRing ring = OWN.get();
+        ring.written.set(0);
+        CURRENT_TEST.set(ring);
+        return ring;
+    }
+
+    public static RequestLogRing endTest() {
+        RequestLogRing ring = CURRENT_TEST.get();
+        CURRENT_TEST.remove();
+        return ring;
+    }
+
+    /**
+     * The ring requests on this thread are recorded in: the current test's, or the one shared outside tests.
+     */
+    public static RequestLogRing current() {
+        RequestLogRing ring = CURRENT_TEST.get();
+        return ring != null ? ring : OUTSIDE_TESTS;
+    }
+
+    public void record(long epochMillis, long durationNanos, int status, String method, String uri,
+                       Object requestBody, byte[] responseBody) {
+        long sequence = written.getAndIncrement();
+        ByteBuffer slot = slots.slice((int) (sequence % SLOTS) * SLOT_BYTES, SLOT_BYTES);
+        slot.putLong(epochMillis).putLong(durationNanos).putInt(status);
+        putText(slot, method, slot.remaining());
+        putText(slot, uri, MAX_URI_BYTES);
+        // The request body may use up to half of what is left, the response body gets the rest
+        int fieldOverhead = 2 * Integer.BYTES;
+        int requestLimit = Math.max(0, (slot.remaining() - 2 * fieldOverhead) / 2);
+        if (requestBody instanceof byte[] bytes) {
+            putBytes(slot, bytes, requestLimit);
+        } else {
+            putText(slot, requestBody == null ? null : String.valueOf(requestBody), requestLimit);
+        }
+        putBytes(slot, responseBody, slot.remaining() - fieldOverhead);
+    }
+
+    public boolean isEmpty() {
+        return written.get() == 0;
+    }
+
+    /**
+     * The last {@code limit} exchanges, oldest first, as readable text.
+     */
+    public String render(int limit) {
+        long end = written.get();
+        long start = Math.max(0, end - Math.min(limit, SLOTS));
+        // Truncation may cut a multi-byte character, which decodes as a replacement character
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                                                       .onMalformedInput(CodingErrorAction.REPLACE)
+                                                       .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        StringBuilder text = new StringBuilder();
+        if (start > 0) {
+            text.append("(").append(start).append(" earlier exchanges not kept)\n");
+        }
+        for (long sequence = start; sequence < end; sequence++) {
+            ByteBuffer slot = slots.slice((int) (sequence % SLOTS) * SLOT_BYTES, SLOT_BYTES);
+            try {
+                long epochMillis = slot.getLong();
+                long durationNanos = slot.getLong();
+                int status = slot.getInt();
+                String method = getText(slot, decoder);
+                String uri = getText(slot, decoder);
+                String request = getText(slot, decoder);
+                String response = getText(slot, decoder);
+                text.append(TIME.format(Instant.ofEpochMilli(epochMillis))).append(' ')
+                    .append(method).append(' ').append(uri)
+                    .append(" -> ").append(status == 0 ? "no response" : String.valueOf(status))
+                    .append(String.format(" (%.1f ms)%n", durationNanos / 1e6));
+                appendBody(text, "  > ", request);
+                appendBody(text, "  < ", response);
+            } catch (RuntimeException | CharacterCodingException e) {
+                // A thread the test started is still writing, so the slot was reused while being read
+                text.append("(exchange overwritten while rendering)\n");
+            }
+        }
+        return text.toString();
+    }
+
+    private static void appendBody(StringBuilder text, String prefix, String body) {
+        if (!body.isEmpty()) {
+            text.append(prefix).append(body.replace("\n", "\n" + prefix)).append('\n');
+        }
+    }
+
+    // Encodes straight into the slot; the encoder stops at the limit, which truncates the text
+    private static void putText(ByteBuffer slot, String value, int limit) {
+        int lengthAt = slot.position();
+        slot.position(lengthAt + 2 * Integer.BYTES);
+        boolean complete = true;
+        if (value != null) {
+            int end = slot.limit();
+            slot.limit(slot.position() + Math.max(0, Math.min(limit, slot.remaining())));
+            CharBuffer chars = CharBuffer.wrap(value);
+            ENCODER.get().reset().encode(chars, slot, true);
+            complete = !chars.hasRemaining();
+            slot.limit(end);
+        }
+        slot.putInt(lengthAt, complete ? 0 : value.length())
+            .putInt(lengthAt + Integer.BYTES, slot.position() - lengthAt - 2 * Integer.BYTES);
+    }
+
+    private static void putBytes(ByteBuffer slot, byte[] value, int limit) {
+        int length = value == null ? 0 : value.length;
+        int stored = Math.max(0, Math.min(length, Math.min(limit, slot.remaining() - 2 * Integer.BYTES)));
+        slot.putInt(stored < length ? length : 0).putInt(stored);
+        if (stored > 0) {
+            slot.put(value, 0, stored);
+        }
+    }
+
+    private static String getText(ByteBuffer slot, CharsetDecoder decoder) throws CharacterCodingException {
+        int truncatedFrom = slot.getInt();
+        int stored = slot.getInt();
+        ByteBuffer bytes = slot.slice(slot.position(), stored);
+        slot.position(slot.position() + stored);
+        String text = decoder.reset().decode(bytes).toString();
+        return truncatedFrom > 0 ? text + "... (truncated, " + truncatedFrom + " in total)" : text;
+    }
+}
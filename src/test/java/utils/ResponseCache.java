@@ -0,0 +1,152 @@
+package utils;
+
+import config.ResponseCacheConfig;
+import io.restassured.response.Response;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache of successful GET responses for {@link RestClient}, so verification reads of the same
+ * booking do not each cost a round trip. Entries are keyed by resolved path and query, evicted least recently used
+ * beyond {@link ResponseCacheConfig#maxEntries()} and expire after {@link ResponseCacheConfig#ttl()}.
+ * <p>
+ * A PATCH or DELETE through the client invalidates its path, and a read that was in flight during the write is not
+ * stored. Writes made around the client (raw specs, {@code BookingFactory}) do not invalidate, but a cached response
+ * whose status differs from the one a caller expects is never served, so checks like "404 after delete" still go to
+ * the server.
+ */
+public class ResponseCache {
+
+    private static final ResponseCache NONE = new ResponseCache(ResponseCacheConfig.none());
+
+    private final ResponseCacheConfig config;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    // Bumped on every invalidation of a path hashing to the stripe; a read only stores if its stripe is unchanged
+    private final AtomicLongArray generations = new AtomicLongArray(64);
+    // Access-ordered, guarded by itself
+    private final Map<String, Entry> entries;
+
+    public ResponseCache(ResponseCacheConfig config) {
+        this.config = config;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                boolean evict = size() > config.maxEntries();
+                if (evict) {
+                    evictions.increment();
+                }
+                return evict;
+            }
+        };
+    }
+
+    public static ResponseCache none() {
+        return NONE;
+    }
+
+    public boolean enabled() {
+        return config.enabled();
+    }
+
+    /**
+     * Whether GETs of {@code route}, a template such as {@code /booking/{id}}, are cached.
+     */
+    public boolean caches(String route) {
+        return config.enabled() && config.routes().contains(route);
+    }
+
+    /**
+     * Serves the cached response for {@code path} and {@code query} if it is fresh and has
+     * {@code expectedStatusCode}, otherwise fetches, stores a 2xx answer and returns it.
+     *
+     * @param bypass fetch even when a response is cached, and refresh the entry with the answer
+     */
+    public Response get(String path, String query, int expectedStatusCode, boolean bypass, Supplier<Response> fetch) {
+        String key = query.isEmpty() ? path : path + "?" + query;
+        if (bypass) {
+            bypassed.increment();
+        } else {
+            Response cached = lookup(key, expectedStatusCode);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            misses.increment();
+        }
+        int stripe = stripe(path);
+        long generation = generations.get(stripe);
+        Response response = fetch.get();
+        if (response.statusCode() / 100 == 2) {
+            synchronized (entries) {
+                if (generations.get(stripe) == generation) {
+                    entries.put(key, new Entry(response, System.nanoTime() + config.ttl().toNanos()));
+                }
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Drops every cached response for {@code path}, whatever its query.
+     */
+    public void invalidate(String path) {
+        if (!config.enabled()) {
+            return;
+        }
+        generations.incrementAndGet(stripe(path));
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.equals(path) || key.startsWith(path + "?"));
+        }
+        invalidations.increment();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public String summary() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return String.format("Response cache %s: %d hits, %d misses (%.0f%% hit rate), %d bypassed, "
+                        + "%d invalidations, %d evictions, %d of %d entries",
+                config.routes(), hitCount, lookups - hitCount, lookups == 0 ? 0.0 : 100.0 * hitCount / lookups,
+                bypassed.sum(), invalidations.sum(), evictions.sum(), size, config.maxEntries());
+    }
+
+    private Response lookup(String key, int expectedStatusCode) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt - System.nanoTime() <= 0) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.response.statusCode() == expectedStatusCode ? entry.response : null;
+        }
+    }
+
+    private int stripe(String path) {
+        return (path.hashCode() & Integer.MAX_VALUE) % generations.length();
+    }
+
+    private record Entry(Response response, long expiresAt) {
+    }
+}
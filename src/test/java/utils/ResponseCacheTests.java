@@ -0,0 +1,151 @@
+package utils;
+
+import config.ResponseCacheConfig;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Checks eviction, expiry and the rules for what {@link ResponseCache} stores and serves, with responses built in
+ * memory and a counter of how often the server would have been asked.
+ */
+public class ResponseCacheTests {
+
+    private static final Duration LONG_TTL = Duration.ofMinutes(5);
+
+    @Test
+    public void get_servesAStoredResponse_untilInvalidated() {
+        ResponseCache cache = cache(10, LONG_TTL);
+        Server server = new Server(200);
+
+        cache.get("/booking/1", "", 200, false, server);
+        cache.get("/booking/1", "", 200, false, server);
+        assertThat(server.calls.get(), is(1));
+        assertThat(cache.hits(), is(1L));
+
+        cache.invalidate("/booking/1");
+        cache.get("/booking/1", "", 200, false, server);
+        assertThat(server.calls.get(), is(2));
+    }
+
+    @Test
+    public void get_evictsTheLeastRecentlyUsed() {
+        ResponseCache cache = cache(2, LONG_TTL);
+        Server server = new Server(200);
+        cache.get("/booking/1", "", 200, false, server);
+        cache.get("/booking/2", "", 200, false, server);
+        cache.get("/booking/1", "", 200, false, server); // 1 is now more recent than 2
+
+        cache.get("/booking/3", "", 200, false, server);
+        assertThat(server.calls.get(), is(3));
+
+        cache.get("/booking/1", "", 200, false, server);
+        assertThat(server.calls.get(), is(3));
+        cache.get("/booking/2", "", 200, false, server);
+        assertThat(server.calls.get(), is(4));
+    }
+
+    @Test
+    public void get_withZeroTtl_alwaysFetches() {
+        ResponseCache cache = cache(10, Duration.ZERO);
+        Server server = new Server(200);
+
+        for (int i = 0; i < 3; i++) {
+            cache.get("/booking/1", "", 200, false, server);
+        }
+        assertThat(server.calls.get(), is(3));
+        assertThat(cache.hits(), is(0L));
+    }
+
+    @Test
+    public void get_doesNotStoreARead_invalidatedWhileInFlight() {
+        ResponseCache cache = cache(10, LONG_TTL);
+        Server server = new Server(200);
+
+        cache.get("/booking/1", "", 200, false, () -> {
+            // A PATCH through the client lands while the GET is on the wire
+            cache.invalidate("/booking/1");
+            return server.get();
+        });
+        cache.get("/booking/1", "", 200, false, server);
+
+        assertThat(server.calls.get(), is(2));
+    }
+
+    @Test
+    public void get_withAnotherExpectedStatus_goesToTheServer_andKeepsTheEntry() {
+        ResponseCache cache = cache(10, LONG_TTL);
+        cache.get("/booking/1", "", 200, false, new Server(200));
+        Server deleted = new Server(404);
+
+        Response response = cache.get("/booking/1", "", 404, false, deleted);
+
+        assertThat(response.statusCode(), is(404));
+        assertThat(deleted.calls.get(), is(1));
+        // The 404 is not stored, the 200 is still served to callers expecting it
+        Server unused = new Server(200);
+        assertThat(cache.get("/booking/1", "", 200, false, unused).statusCode(), is(200));
+        assertThat(unused.calls.get(), is(0));
+    }
+
+    @Test
+    public void get_bypass_fetchesAndRefreshesTheEntry() {
+        ResponseCache cache = cache(10, LONG_TTL);
+        cache.get("/booking/1", "", 200, false, new Server(200, "old"));
+
+        assertThat(cache.get("/booking/1", "", 200, true, new Server(200, "new")).asString(), is("new"));
+        assertThat(cache.get("/booking/1", "", 200, false, new Server(200, "unused")).asString(), is("new"));
+    }
+
+    @Test
+    public void invalidate_dropsEveryQueryOfThePath_only() {
+        ResponseCache cache = cache(10, LONG_TTL);
+        Server server = new Server(200);
+        cache.get("/booking", "firstname=Jim", 200, false, server);
+        cache.get("/booking", "lastname=Brown", 200, false, server);
+        cache.get("/bookings", "", 200, false, server);
+
+        cache.invalidate("/booking");
+        cache.get("/booking", "firstname=Jim", 200, false, server);
+        cache.get("/booking", "lastname=Brown", 200, false, server);
+        cache.get("/bookings", "", 200, false, server);
+
+        assertThat(server.calls.get(), is(5));
+    }
+
+    private static ResponseCache cache(int maxEntries, Duration ttl) {
+        return new ResponseCache(new ResponseCacheConfig(true, maxEntries, ttl, Set.of("/booking/{id}")));
+    }
+
+    /**
+     * Answers every fetch with the same status and body and counts them.
+     */
+    private static final class Server implements Supplier<Response> {
+        private final int status;
+        private final String body;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private Server(int status) {
+            this(status, "{}");
+        }
+
+        private Server(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        @Override
+        public Response get() {
+            calls.incrementAndGet();
+            return new ResponseBuilder().setStatusCode(status).setBody(body).build();
+        }
+    }
+}
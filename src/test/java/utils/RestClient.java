@@ -4,52 +4,107 @@ import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 import io.restassured.specification.ResponseSpecification;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import static io.restassured.RestAssured.given;
 
+/**
+ * Immutable, thread-safe wrapper around the shared request/response specifications.
+ * Every {@code with*} call returns a new client carrying the extra request state, and every HTTP call builds its
+ * own {@link RequestSpecification} from the prebuilt spec, so one instance can be shared by all test threads.
+ * GETs are idempotent and go through the client's {@link HedgingPolicy}; other methods are sent exactly once.
+ * GETs of the routes its {@link ResponseCache} covers may be answered from the cache, and a PATCH or DELETE through
+ * the client invalidates its path.
+ */
 public class RestClient {
 
     private final RequestSpecification requestSpec;
     private final ResponseSpecification responseSpec;
+    private final HedgingPolicy hedging;
+    private final ResponseCache cache;
 
-    // Mutable request state
-    private RequestSpecification currentRequest;
+    // Per-request state, never mutated after construction
+    private final Supplier<String> token;
+    private final Map<String, Object> pathParams;
+    private final Map<String, Object> queryParams;
+    private final Object body;
+    private final boolean bypassCache;
 
     public RestClient(RequestSpecification requestSpec, ResponseSpecification responseSpec) {
+        this(requestSpec, responseSpec, HedgingPolicy.none(), ResponseCache.none());
+    }
+
+    public RestClient(RequestSpecification requestSpec,
+                      ResponseSpecification responseSpec,
+                      HedgingPolicy hedging,
+                      ResponseCache cache) {
         this.requestSpec = requestSpec;
         this.responseSpec = responseSpec;
-        reset();
+        this.hedging = hedging;
+        this.cache = cache;
+        this.token = null;
+        this.pathParams = Collections.emptyMap();
+        this.queryParams = Collections.emptyMap();
+        this.body = null;
+        this.bypassCache = false;
     }
 
-    private void reset() {
-        currentRequest = given().spec(requestSpec);
+    private RestClient(RestClient base,
+                       Supplier<String> token,
+                       Map<String, Object> pathParams,
+                       Map<String, Object> queryParams,
+                       Object body,
+                       boolean bypassCache) {
+        this.requestSpec = base.requestSpec;
+        this.responseSpec = base.responseSpec;
+        this.hedging = base.hedging;
+        this.cache = base.cache;
+        this.token = token;
+        this.pathParams = pathParams;
+        this.queryParams = queryParams;
+        this.body = body;
+        this.bypassCache = bypassCache;
     }
 
     public RestClient withToken(String token) {
-        currentRequest.cookie("token", token);
-        return this;
+        return new RestClient(this, () -> token, pathParams, queryParams, body, bypassCache);
+    }
+
+    /**
+     * Resolves the token from the shared cache when the request is sent, so long-lived clients pick up refreshes.
+     */
+    public RestClient withToken(TokenProvider tokenProvider) {
+        return new RestClient(this, tokenProvider::token, pathParams, queryParams, body, bypassCache);
     }
 
     public RestClient withPathParam(String key, Object value) {
-        currentRequest.pathParam(key, value);
-        return this;
+        return withPathParams(Map.of(key, value));
     }
 
     public RestClient withPathParams(Map<String, ?> params) {
-        currentRequest.pathParams(params);
-        return this;
+        return new RestClient(this, token, merge(pathParams, params), queryParams, body, bypassCache);
     }
 
     public RestClient withQueryParam(String key, Object value) {
-        currentRequest.queryParam(key, value);
-        return this;
+        return new RestClient(this, token, pathParams, merge(queryParams, Map.of(key, value)), body, bypassCache);
     }
 
     public RestClient withBody(Object body) {
-        currentRequest.body(body);
-        return this;
+        return new RestClient(this, token, pathParams, queryParams, body, bypassCache);
+    }
+
+    /**
+     * GETs of the returned client always go to the server, for checks where freshness matters; the answer still
+     * refreshes the cache.
+     */
+    public RestClient bypassCache() {
+        return new RestClient(this, token, pathParams, queryParams, body, true);
     }
 
     public Response get(String endpoint) {
@@ -61,34 +116,29 @@ public class RestClient {
     }
 
     public Response get(String endpoint, int expectedStatusCode) {
-        try {
-            Response response = currentRequest
-                    .when()
-                    .get(endpoint)
-                    .then()
-                    .statusCode(expectedStatusCode)
-                    .spec(responseSpec)
-                    .extract()
-                    .response();
-            return response;
-        } finally {
-            reset();
+        Supplier<Response> fetch = () -> hedging.call("GET " + endpoint, () -> request()
+                .when()
+                .get(endpoint)
+                .then()
+                .statusCode(expectedStatusCode)
+                .spec(responseSpec)
+                .extract()
+                .response());
+        if (!cache.caches(endpoint)) {
+            return fetch.get();
         }
+        return cache.get(resolve(endpoint), queryParams.isEmpty() ? "" : queryParams.toString(), expectedStatusCode,
+                bypassCache, fetch);
     }
 
     public Response post(String endpoint) {
-        try {
-            Response response = currentRequest
-                    .when()
-                    .post(endpoint)
-                    .then()
-                    .spec(responseSpec)
-                    .extract()
-                    .response();
-            return response;
-        } finally {
-            reset();
-        }
+        return request()
+                .when()
+                .post(endpoint)
+                .then()
+                .spec(responseSpec)
+                .extract()
+                .response();
     }
 
     public Response patch(String endpoint) {
@@ -100,19 +150,14 @@ public class RestClient {
     }
 
     public Response patch(String endpoint, int expectedStatus) {
-        try {
-            Response response = currentRequest
-                    .when()
-                    .patch(endpoint)
-                    .then()
-                    .statusCode(expectedStatus)
-                    .spec(responseSpec)
-                    .extract()
-                    .response();
-            return response;
-        } finally {
-            reset();
-        }
+        return invalidating(endpoint, () -> request()
+                .when()
+                .patch(endpoint)
+                .then()
+                .statusCode(expectedStatus)
+                .spec(responseSpec)
+                .extract()
+                .response());
     }
 
     public Response delete(String endpoint) {
@@ -120,84 +165,116 @@ public class RestClient {
     }
 
     public Response delete(String endpoint, int expectedStatusCode) {
-        try {
-            Response response = currentRequest
-                    .when()
-                    .delete(endpoint)
-                    .then()
-                    .statusCode(expectedStatusCode)
-                    .spec(responseSpec)
-                    .extract()
-                    .response();
-            return response;
-        } finally {
-            reset();
-        }
+        return invalidating(endpoint, () -> request()
+                .when()
+                .delete(endpoint)
+                .then()
+                .statusCode(expectedStatusCode)
+                .spec(responseSpec)
+                .extract()
+                .response());
     }
 
     // ==== Typed responses ====
     public <T> T get(String endpoint, Class<T> responseClass, int expectedStatusCode) {
-        try {
-            T response = currentRequest
-                    .when()
-                    .get(endpoint)
-                    .then()
-                    .statusCode(expectedStatusCode)
-                    .spec(responseSpec)
-                    .extract()
-                    .as(responseClass);
-            return response;
-        } finally {
-            reset();
-        }
+        return get(endpoint, expectedStatusCode).as(responseClass);
     }
 
     public <T> T post(String endpoint, Class<T> responseClass) {
-        try {
-            T response = currentRequest
-                    .when()
-                    .post(endpoint)
-                    .then()
-                    .spec(responseSpec)
-                    .extract()
-                    .as(responseClass);
-            reset();
-            return response;
-        } finally {
-            reset();
-        }
+        return request()
+                .when()
+                .post(endpoint)
+                .then()
+                .spec(responseSpec)
+                .extract()
+                .as(responseClass);
     }
 
     public <T> T patch(String endpoint, Class<T> responseClass, int expectedStatusCode) {
-        try {
-            T response = currentRequest
-                    .when()
-                    .patch(endpoint)
-                    .then()
-                    .statusCode(expectedStatusCode)
-                    .spec(responseSpec)
-                    .extract()
-                    .as(responseClass);
-            return response;
-        } finally {
-            reset();
-        }
+        return invalidating(endpoint, () -> request()
+                .when()
+                .patch(endpoint)
+                .then()
+                .statusCode(expectedStatusCode)
+                .spec(responseSpec)
+                .extract()
+                .as(responseClass));
     }
 
     public <T> List<T> getList(String endpoint, String jsonPath, Class<T> type) {
-        try {
-            List<T> result = currentRequest
+        return hedging.call("GET " + endpoint, () -> request()
+                .when()
+                .get(endpoint)
+                .then()
+                .spec(responseSpec)
+                .extract()
+                .jsonPath()
+                .getList(jsonPath, type));
+    }
+
+    /**
+     * Streams the ids in {@code field} of the response body into an {@link IdSet}, without buffering the body or
+     * boxing the ids; use it for listings that may be large, such as GET /booking.
+     */
+    public IdSet getIdSet(String endpoint, String field) {
+        return hedging.call("GET " + endpoint, () -> {
+            InputStream body = request()
                     .when()
                     .get(endpoint)
                     .then()
                     .spec(responseSpec)
                     .extract()
-                    .jsonPath()
-                    .getList(jsonPath, type);
-            return result;
+                    .asInputStream();
+            try {
+                return IdSet.parse(body, field);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read '" + field + "' values from GET " + endpoint, e);
+            }
+        });
+    }
+
+    /**
+     * Runs a write and then drops cached responses of its path, also when the write failed: the server may have
+     * applied it anyway.
+     */
+    private <T> T invalidating(String endpoint, Supplier<T> write) {
+        try {
+            return write.get();
         } finally {
-            reset();
+            if (cache.caches(endpoint)) {
+                cache.invalidate(resolve(endpoint));
+            }
         }
     }
-}
 
+    private String resolve(String endpoint) {
+        String path = endpoint;
+        for (Map.Entry<String, Object> param : pathParams.entrySet()) {
+            path = path.replace("{" + param.getKey() + "}", String.valueOf(param.getValue()));
+        }
+        return path;
+    }
+
+    private RequestSpecification request() {
+        RequestSpecification request = given().spec(requestSpec);
+        if (token != null) {
+            request.cookie("token", token.get());
+        }
+        if (!pathParams.isEmpty()) {
+            request.pathParams(pathParams);
+        }
+        if (!queryParams.isEmpty()) {
+            request.queryParams(queryParams);
+        }
+        if (body != null) {
+            request.body(body);
+        }
+        return request;
+    }
+
+    private static Map<String, Object> merge(Map<String, Object> current, Map<String, ?> extra) {
+        Map<String, Object> merged = new LinkedHashMap<>(current);
+        merged.putAll(extra);
+        return Collections.unmodifiableMap(merged);
+    }
+}
@@ -0,0 +1,152 @@
+package utils;
+
+import config.Constants;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.ResponseSpecification;
+import pojo.LoginRequest;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared cache of auth tokens per credential pair.
+ * Concurrent callers for the same credentials share one in-flight {@code /auth} call, tokens are reused until
+ * they expire, and a token close to expiry is refreshed in the background while callers keep using the old one.
+ */
+public class TokenProvider {
+
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+    public static final Duration DEFAULT_REFRESH_AHEAD = Duration.ofMinutes(1);
+
+    private final RequestSpecification requestSpec;
+    private final ResponseSpecification responseSpec;
+    private final long ttlNanos;
+    private final long refreshAheadNanos;
+    private final Map<Credentials, CompletableFuture<Token>> tokens = new ConcurrentHashMap<>();
+    private final Map<Credentials, CompletableFuture<Token>> refreshes = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder logins = new LongAdder();
+
+    public TokenProvider(RequestSpecification requestSpec, ResponseSpecification responseSpec) {
+        this(requestSpec, responseSpec, DEFAULT_TTL, DEFAULT_REFRESH_AHEAD);
+    }
+
+    public TokenProvider(RequestSpecification requestSpec,
+                         ResponseSpecification responseSpec,
+                         Duration ttl,
+                         Duration refreshAhead) {
+        this.requestSpec = requestSpec;
+        this.responseSpec = responseSpec;
+        this.ttlNanos = ttl.toNanos();
+        this.refreshAheadNanos = refreshAhead.toNanos();
+    }
+
+    /**
+     * Token for the default admin credentials from {@link Constants}.
+     */
+    public String token() {
+        return token(new LoginRequest(Constants.USERNAME, Constants.PASSWORD));
+    }
+
+    public String token(LoginRequest loginRequest) {
+        return join(tokenAsync(loginRequest));
+    }
+
+    public CompletableFuture<String> tokenAsync() {
+        return tokenAsync(new LoginRequest(Constants.USERNAME, Constants.PASSWORD));
+    }
+
+    /**
+     * Non-blocking variant of {@link #token(LoginRequest)} for pipelined flows.
+     */
+    public CompletableFuture<String> tokenAsync(LoginRequest loginRequest) {
+        Credentials credentials = new Credentials(loginRequest.getUsername(), loginRequest.getPassword());
+        CompletableFuture<Token> current = tokens.compute(credentials,
+                (key, existing) -> isUsable(existing) ? existing : login(key));
+        return current.thenApply(token -> {
+            if (System.nanoTime() - token.refreshAt() >= 0) {
+                refreshInBackground(credentials);
+            }
+            return token.value();
+        });
+    }
+
+    /**
+     * Drops every cached token, e.g. after the target was reset.
+     */
+    public void invalidateAll() {
+        tokens.clear();
+    }
+
+    /**
+     * Number of {@code /auth} round trips performed so far.
+     */
+    public long loginCount() {
+        return logins.sum();
+    }
+
+    private void refreshInBackground(Credentials credentials) {
+        CompletableFuture<Token> refresh = new CompletableFuture<>();
+        if (refreshes.putIfAbsent(credentials, refresh) != null) {
+            return; // another caller is already refreshing
+        }
+        login(credentials).whenComplete((token, error) -> {
+            if (error == null) {
+                tokens.put(credentials, CompletableFuture.completedFuture(token));
+                refresh.complete(token);
+            } else {
+                refresh.completeExceptionally(error);
+            }
+            refreshes.remove(credentials, refresh);
+        });
+    }
+
+    private CompletableFuture<Token> login(Credentials credentials) {
+        return CompletableFuture.supplyAsync(() -> {
+            logins.increment();
+            String value = Auth.login(new LoginRequest(credentials.username(), credentials.password()),
+                    requestSpec, responseSpec);
+            if (value == null) {
+                throw new IllegalStateException("Login failed for user: " + credentials.username());
+            }
+            long issuedAt = System.nanoTime();
+            return new Token(value, issuedAt + ttlNanos - refreshAheadNanos, issuedAt + ttlNanos);
+        }, executor);
+    }
+
+    private static boolean isUsable(CompletableFuture<Token> token) {
+        if (token == null) {
+            return false;
+        }
+        if (!token.isDone()) {
+            return true; // in-flight login, share it
+        }
+        return !token.isCompletedExceptionally() && System.nanoTime() - token.join().expiresAt() < 0;
+    }
+
+    private static <T> T join(CompletableFuture<T> token) {
+        try {
+            return token.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private record Credentials(String username, String password) {
+    }
+
+    private record Token(String value, long refreshAt, long expiresAt) {
+    }
+}